@@ -0,0 +1,134 @@
+/**
+ * Symbol alphabet for the Weighted Approximate Common Substring problem
+ *
+ * Every accepted symbol maps to a dense code in [0, size). Sequences are
+ * encoded once before the DP, which then indexes flat score tables by code
+ * and never looks at characters again. Symbols are chars in [0, 255]; an
+ * alias (e.g. lowercase DNA) maps to the same code as its canonical symbol.
+ *
+ * Built-in alphabets:
+ *   UPPERCASE - A-Z, codes 0-25 (the original weight-array layout)
+ *   DNA       - IUPAC nucleotide codes: A C G T, the ambiguity codes
+ *               R Y S W K M B D H V N, and lowercase aliases
+ *   LATIN_1   - printable ISO-8859-1: 0x20-0x7E and 0xA0-0xFF
+ *   BYTES     - all 256 values, for byte data decoded as ISO-8859-1
+ */
+
+import java.util.*;
+
+public class Alphabet {
+    
+    private static final int SYMBOL_LIMIT = 256;
+    
+    public static final Alphabet UPPERCASE = of("uppercase", "ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    public static final Alphabet DNA = of("dna", "ACGTRYSWKMBDHVN").withLowercaseAliases();
+    public static final Alphabet LATIN_1 = ofRanges("latin-1", 0x20, 0x7E, 0xA0, 0xFF);
+    public static final Alphabet BYTES = ofRanges("bytes", 0x00, 0xFF);
+    
+    private final String name;
+    private final char[] symbols;
+    // Code of every symbol value, -1 where the symbol is not accepted
+    private final short[] codes;
+    
+    private Alphabet(String name, char[] symbols, short[] codes) {
+        this.name = name;
+        this.symbols = symbols;
+        this.codes = codes;
+    }
+    
+    /**
+     * Alphabet whose codes follow the order of the given symbols
+     */
+    public static Alphabet of(String name, String symbols) {
+        short[] codes = new short[SYMBOL_LIMIT];
+        Arrays.fill(codes, (short) -1);
+        for (int i = 0; i < symbols.length(); i++) {
+            char symbol = symbols.charAt(i);
+            if (symbol >= SYMBOL_LIMIT) {
+                throw new IllegalArgumentException("Symbol outside Latin-1: U+"
+                    + Integer.toHexString(symbol));
+            }
+            if (codes[symbol] >= 0) {
+                throw new IllegalArgumentException("Duplicate symbol '" + symbol + "'");
+            }
+            codes[symbol] = (short) i;
+        }
+        return new Alphabet(name, symbols.toCharArray(), codes);
+    }
+    
+    private static Alphabet ofRanges(String name, int... bounds) {
+        StringBuilder symbols = new StringBuilder();
+        for (int i = 0; i < bounds.length; i += 2) {
+            for (int c = bounds[i]; c <= bounds[i + 1]; c++) {
+                symbols.append((char) c);
+            }
+        }
+        return of(name, symbols.toString());
+    }
+    
+    /**
+     * Copy that also accepts the lowercase form of every letter symbol
+     */
+    public Alphabet withLowercaseAliases() {
+        short[] aliased = codes.clone();
+        for (char symbol : symbols) {
+            char lower = Character.toLowerCase(symbol);
+            if (lower != symbol && lower < SYMBOL_LIMIT && aliased[lower] < 0) {
+                aliased[lower] = codes[symbol];
+            }
+        }
+        return new Alphabet(name, symbols, aliased);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int size() {
+        return symbols.length;
+    }
+    
+    /**
+     * Code of a symbol, or -1 if the alphabet does not accept it
+     */
+    public int code(char symbol) {
+        return (symbol < SYMBOL_LIMIT) ? codes[symbol] : -1;
+    }
+    
+    /**
+     * Canonical symbol of a code
+     */
+    public char symbol(int code) {
+        return symbols[code];
+    }
+    
+    public boolean accepts(String sequence) {
+        for (int i = 0; i < sequence.length(); i++) {
+            if (code(sequence.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Codes of every symbol of the sequence
+     */
+    public int[] encode(String sequence) {
+        int[] encoded = new int[sequence.length()];
+        for (int i = 0; i < encoded.length; i++) {
+            int code = code(sequence.charAt(i));
+            if (code < 0) {
+                throw new IllegalArgumentException("Symbol '" + sequence.charAt(i) + "' at position "
+                    + i + " is not in the " + name + " alphabet");
+            }
+            encoded[i] = code;
+        }
+        return encoded;
+    }
+    
+    @Override
+    public String toString() {
+        return name + " (" + symbols.length + " symbols)";
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Batch solver for many Largest Zero Sub-matrix problems
+ *
+ * Design:
+ * A fixed pool of workers takes grids from the caller's Iterable. Each
+ * worker thread keeps one LargestZeroSubmatrix instance and so reuses its
+ * DP rows across grids. Results go to a listener as soon as each grid
+ * finishes, together with its index and solve time. At most a few grids
+ * per worker are in flight, so the input can be streamed lazily.
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class GridBatchSolver implements AutoCloseable {
+    
+    private static final int IN_FLIGHT_PER_WORKER = 4;
+    
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final ThreadLocal<LargestZeroSubmatrix> finders =
+        ThreadLocal.withInitial(LargestZeroSubmatrix::new);
+    
+    public GridBatchSolver(int workerCount) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workerCount);
+        }
+        this.workerCount = workerCount;
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "grid-batch-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Receives each result on the worker thread that produced it, in
+     * completion order; implementations must be thread-safe
+     */
+    public interface ResultListener {
+        void onResult(GridResult result);
+    }
+    
+    /**
+     * Result of one grid in a batch
+     */
+    public static class GridResult {
+        public final int index;
+        public final LargestZeroSubmatrix.SquareResult square;
+        public final long elapsedNanos;
+        public final RuntimeException error;
+        
+        public GridResult(int index, LargestZeroSubmatrix.SquareResult square,
+                          long elapsedNanos, RuntimeException error) {
+            this.index = index;
+            this.square = square;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+        
+        public boolean isSuccess() {
+            return error == null;
+        }
+        
+        @Override
+        public String toString() {
+            if (error != null) {
+                return String.format("Grid %d failed: %s", index, error);
+            }
+            return String.format("Grid %d: %s (%.3f ms)",
+                index, square, elapsedNanos / 1_000_000.0);
+        }
+    }
+    
+    /**
+     * Solve every grid and block until all results were delivered.
+     * A grid that fails is reported through its result, not thrown.
+     *
+     * @return number of grids processed
+     */
+    public int solveAll(Iterable<byte[][]> grids, ResultListener listener)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(workerCount * IN_FLIGHT_PER_WORKER);
+        Phaser pending = new Phaser(1);
+        int index = 0;
+        
+        for (byte[][] grid : grids) {
+            inFlight.acquire();
+            pending.register();
+            int gridIndex = index++;
+            workers.execute(() -> {
+                try {
+                    listener.onResult(solveOne(gridIndex, grid));
+                } finally {
+                    inFlight.release();
+                    pending.arriveAndDeregister();
+                }
+            });
+        }
+        
+        pending.awaitAdvanceInterruptibly(pending.arriveAndDeregister());
+        return index;
+    }
+    
+    /**
+     * Solve every grid and collect the results in input order
+     */
+    public List<GridResult> solveAll(List<byte[][]> grids) throws InterruptedException {
+        GridResult[] results = new GridResult[grids.size()];
+        solveAll(grids, result -> results[result.index] = result);
+        return Arrays.asList(results);
+    }
+    
+    private GridResult solveOne(int index, byte[][] grid) {
+        LargestZeroSubmatrix finder = finders.get();
+        long startTime = System.nanoTime();
+        try {
+            // Detach from the grid so streamed inputs can be collected
+            LargestZeroSubmatrix.SquareResult square = finder.findLargestZeroSquare(grid).withoutSource();
+            return new GridResult(index, square, System.nanoTime() - startTime, null);
+        } catch (RuntimeException e) {
+            return new GridResult(index, null, System.nanoTime() - startTime, e);
+        }
+    }
+    
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,494 @@
+/**
+ * Coordinator for distributed weighted substring matching
+ *
+ * Workers (see MatchWorker) connect to the coordinator's server socket.
+ * The coordinator launches the requested number of local worker JVMs
+ * itself, using the running JVM and class path; workers on other hosts
+ * may connect as well when the coordinator binds a reachable address.
+ *
+ * Work splitting:
+ *   single problem - the diagonal range is cut into shards of roughly
+ *                    equal cost (a diagonal of D cells costs ~D^2 / 2),
+ *                    several per worker so faster workers take more
+ *   batch          - the pair list is cut into contiguous groups
+ * Each worker connection has a thread that takes the next shard from a
+ * shared queue. The per-shard bests are merged with the single-process
+ * tie-break, so results equal those of WeightedSubstringMatcher alone.
+ *
+ * Failures:
+ * When a connection fails, its shard goes back on the queue. A shard is
+ * tried at most maxAttempts times. A worker that does not answer within
+ * the shard timeout counts as failed; its connection is dropped and, if it
+ * is a local worker, its process is killed. Idle connections are pinged so
+ * that workers notice a coordinator that has gone silent. Local workers
+ * that exit are relaunched while the relaunch budget (localWorkers x
+ * maxAttempts) lasts. When no worker is left and none can be started,
+ * pending shards fail. A coordinator without local workers fails problems
+ * submitted while no remote worker is connected (see awaitWorkers).
+ *
+ * Callers keep using WeightedSubstringMatcher; see setCoordinator.
+ */
+
+import java.io.*;
+import java.net.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+public class MatchCoordinator implements AutoCloseable {
+    
+    private static final int SHARDS_PER_WORKER = 4;
+    private static final int PAIRS_PER_SHARD = 16;
+    // Idle connections are pinged this often; see MatchWorker.IDLE_TIMEOUT_MILLIS
+    private static final long PING_INTERVAL_MILLIS = 5_000;
+    
+    private final ServerSocket serverSocket;
+    private final int localWorkers;
+    private final BlockingQueue<Shard> queue = new LinkedBlockingQueue<>();
+    private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectedWorkers = new AtomicInteger();
+    private final AtomicInteger relaunches = new AtomicInteger();
+    // Relaunches between removing a dead process and adding its replacement
+    private final AtomicInteger startingWorkers = new AtomicInteger();
+    private final AtomicLong problemIds = new AtomicLong();
+    private final Thread acceptor;
+    private volatile boolean closed;
+    private volatile int maxAttempts = 3;
+    private volatile long shardTimeoutMillis = TimeUnit.MINUTES.toMillis(10);
+    
+    /**
+     * Listen on an ephemeral loopback port and start local workers
+     */
+    public MatchCoordinator(int localWorkers) throws IOException {
+        this(InetAddress.getLoopbackAddress(), 0, localWorkers);
+    }
+    
+    /**
+     * Listen on the given address (port 0 for any) and start local
+     * workers; remote workers may connect to the same address
+     */
+    public MatchCoordinator(InetAddress bindAddress, int port, int localWorkers) throws IOException {
+        if (localWorkers < 0) {
+            throw new IllegalArgumentException("Invalid worker count " + localWorkers);
+        }
+        this.serverSocket = new ServerSocket(port, 50, bindAddress);
+        this.localWorkers = localWorkers;
+        
+        this.acceptor = new Thread(this::acceptWorkers, "match-coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        
+        for (int i = 0; i < localWorkers; i++) {
+            launchWorker();
+        }
+    }
+    
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    public int getConnectedWorkers() {
+        return connectedWorkers.get();
+    }
+    
+    /**
+     * Attempts per shard before its problem fails; local workers are
+     * relaunched at most localWorkers x attempts times in total
+     */
+    public void setMaxAttempts(int attempts) {
+        this.maxAttempts = Math.max(1, attempts);
+    }
+    
+    /**
+     * Longest wait for a worker's answer before it counts as failed;
+     * 0 waits forever
+     */
+    public void setShardTimeout(long millis) {
+        if (millis < 0 || millis > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid shard timeout " + millis);
+        }
+        this.shardTimeoutMillis = millis;
+    }
+    
+    /**
+     * Wait until at least count workers are connected; false on timeout
+     */
+    public boolean awaitWorkers(int count, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (connectedWorkers.get() < count) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+    
+    /**
+     * Process ids of the local workers currently running
+     */
+    public List<Long> getWorkerPids() {
+        List<Long> pids = new ArrayList<>();
+        for (Process process : processes) {
+            pids.add(process.pid());
+        }
+        return pids;
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        for (Process process : processes) {
+            process.destroy();
+        }
+        failPending(new IllegalStateException("Coordinator closed"));
+    }
+    
+    // ------------------------------------------------------------------
+    // Problems
+    // ------------------------------------------------------------------
+    
+    /**
+     * Best substring pair of one problem, sharded over its diagonals
+     */
+    MatchWorker.Best solve(double[] table, int alphabetSize, int[] firstCodes, int[] secondCodes) {
+        Problem problem = new Problem(problemIds.incrementAndGet(), table, alphabetSize,
+            firstCodes, secondCodes);
+        int len1 = firstCodes.length;
+        int len2 = secondCodes.length;
+        
+        // Cut diagonals -(len1 - 1) .. len2 - 1 into shards of similar cost
+        int shardCount = Math.max(1, Math.max(localWorkers, connectedWorkers.get()) * SHARDS_PER_WORKER);
+        double totalCost = 0;
+        for (int diagonal = -(len1 - 1); diagonal < len2; diagonal++) {
+            totalCost += diagonalCost(diagonal, len1, len2);
+        }
+        double shardCost = totalCost / shardCount;
+        
+        List<Shard> shards = new ArrayList<>();
+        int shardStart = -(len1 - 1);
+        double cost = 0;
+        for (int diagonal = -(len1 - 1); diagonal < len2; diagonal++) {
+            cost += diagonalCost(diagonal, len1, len2);
+            if (cost >= shardCost || diagonal == len2 - 1) {
+                shards.add(new Shard(problem, shardStart, diagonal + 1, null));
+                shardStart = diagonal + 1;
+                cost = 0;
+            }
+        }
+        
+        MatchWorker.Best best = new MatchWorker.Best();
+        for (Shard shard : submit(shards)) {
+            best.merge(shard.results[0]);
+        }
+        return best;
+    }
+    
+    /**
+     * Best substring pair of every (first, second) code pair, in order
+     */
+    MatchWorker.Best[] solvePairs(double[] table, int alphabetSize, List<int[][]> pairs) {
+        Problem problem = new Problem(0, table, alphabetSize, null, null);
+        List<Shard> shards = new ArrayList<>();
+        for (int from = 0; from < pairs.size(); from += PAIRS_PER_SHARD) {
+            shards.add(new Shard(problem, from, Math.min(pairs.size(), from + PAIRS_PER_SHARD),
+                pairs.subList(from, Math.min(pairs.size(), from + PAIRS_PER_SHARD))));
+        }
+        
+        MatchWorker.Best[] results = new MatchWorker.Best[pairs.size()];
+        for (Shard shard : submit(shards)) {
+            System.arraycopy(shard.results, 0, results, shard.from, shard.results.length);
+        }
+        return results;
+    }
+    
+    private static double diagonalCost(int diagonal, int len1, int len2) {
+        int start1 = Math.max(0, -diagonal);
+        double cells = Math.min(len1 - start1, len2 - start1 - diagonal);
+        return cells * (cells + 1) / 2;
+    }
+    
+    private List<Shard> submit(List<Shard> shards) {
+        if (closed) {
+            throw new IllegalStateException("Coordinator closed");
+        }
+        queue.addAll(shards);
+        if (startingWorkers.get() == 0 && processes.isEmpty() && connectedWorkers.get() == 0) {
+            failPending(new IllegalStateException("No workers available"));
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.done.join();
+            } catch (CompletionException e) {
+                queue.removeAll(shards);
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return shards;
+    }
+    
+    private void failPending(RuntimeException error) {
+        List<Shard> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Shard shard : pending) {
+            shard.done.completeExceptionally(error);
+        }
+    }
+    
+    private static final class Problem {
+        final long id;
+        final double[] table;
+        final int alphabetSize;
+        final int[] firstCodes;
+        final int[] secondCodes;
+        
+        Problem(long id, double[] table, int alphabetSize, int[] firstCodes, int[] secondCodes) {
+            this.id = id;
+            this.table = table;
+            this.alphabetSize = alphabetSize;
+            this.firstCodes = firstCodes;
+            this.secondCodes = secondCodes;
+        }
+    }
+    
+    /**
+     * A diagonal range of a problem, or a group of pairs when pairs is set
+     */
+    private static final class Shard {
+        final Problem problem;
+        final int from;
+        final int to;
+        final List<int[][]> pairs;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        int attempts;
+        MatchWorker.Best[] results;
+        
+        Shard(Problem problem, int from, int to, List<int[][]> pairs) {
+            this.problem = problem;
+            this.from = from;
+            this.to = to;
+            this.pairs = pairs;
+        }
+    }
+    
+    // ------------------------------------------------------------------
+    // Workers
+    // ------------------------------------------------------------------
+    
+    private void launchWorker() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+            "MatchWorker", serverSocket.getInetAddress().getHostAddress(), String.valueOf(getPort()));
+        builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        
+        Process process = builder.start();
+        processes.add(process);
+        process.onExit().thenRun(() -> workerExited(process));
+    }
+    
+    private void workerExited(Process process) {
+        // Count the replacement as starting before the dead process goes,
+        // so that no check sees neither of them
+        boolean relaunch = !closed && relaunches.getAndIncrement() < localWorkers * maxAttempts;
+        if (relaunch) {
+            startingWorkers.incrementAndGet();
+        }
+        processes.remove(process);
+        if (closed) {
+            return;
+        }
+        if (relaunch) {
+            try {
+                launchWorker();
+            } catch (IOException e) {
+                // Treated like an exhausted budget below
+            } finally {
+                startingWorkers.decrementAndGet();
+            }
+        }
+        failIfNoWorkers();
+    }
+    
+    /**
+     * Fail pending shards when no worker is connected, running or being
+     * started. Called after every change that can leave none, each time
+     * after its own update, so that whichever of a disconnect and a
+     * process exit comes last sees the other's effect. startingWorkers is
+     * read first: a relaunch that finishes after that read has already
+     * added its process.
+     */
+    private void failIfNoWorkers() {
+        if (startingWorkers.get() == 0 && processes.isEmpty() && connectedWorkers.get() == 0) {
+            failPending(new IllegalStateException("All workers failed"));
+        }
+    }
+    
+    private void acceptWorkers() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            Thread thread = new Thread(() -> serveWorker(socket), "match-coordinator-worker");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+    
+    /**
+     * Feed shards to one worker connection until it fails or we close
+     */
+    private void serveWorker(Socket socket) {
+        connectedWorkers.incrementAndGet();
+        long loadedProblem = -1;
+        Shard shard = null;
+        Process process = null;
+        try (Socket connection = socket) {
+            connection.setSoTimeout((int) shardTimeoutMillis);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            process = localProcess(in.readLong());
+            long lastContact = System.currentTimeMillis();
+            while (!closed) {
+                shard = queue.poll(100, TimeUnit.MILLISECONDS);
+                connection.setSoTimeout((int) shardTimeoutMillis);
+                if (shard == null || shard.done.isDone()) {
+                    shard = null;
+                    if (System.currentTimeMillis() - lastContact >= PING_INTERVAL_MILLIS) {
+                        out.writeByte(MatchWorker.OP_PING);
+                        out.flush();
+                        expectOk(in);
+                        lastContact = System.currentTimeMillis();
+                    }
+                    continue;
+                }
+                shard.attempts++;
+                try {
+                    if (shard.pairs == null && shard.problem.id != loadedProblem) {
+                        loadedProblem = -1;
+                        sendLoad(out, shard.problem);
+                        expectOk(in);
+                        loadedProblem = shard.problem.id;
+                    }
+                    shard.results = (shard.pairs == null) ? runShard(in, out, shard) : runPairs(in, out, shard);
+                    shard.done.complete(null);
+                } catch (WorkerException e) {
+                    // The worker is healthy but rejected the input; retrying will not help
+                    shard.done.completeExceptionally(new IllegalStateException("Worker failed: "
+                        + e.getMessage()));
+                }
+                shard = null;
+                lastContact = System.currentTimeMillis();
+            }
+        } catch (SocketTimeoutException e) {
+            // Hung worker; a killed local worker is relaunched like any other
+            if (process != null) {
+                process.destroyForcibly();
+            }
+        } catch (IOException e) {
+            // Connection lost; the shard is retried below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connectedWorkers.decrementAndGet();
+            if (shard != null) {
+                retry(shard);
+            }
+            failIfNoWorkers();
+        }
+    }
+    
+    /**
+     * The local worker process with the given id, or null for a remote one
+     */
+    private Process localProcess(long pid) {
+        for (Process process : processes) {
+            if (process.pid() == pid) {
+                return process;
+            }
+        }
+        return null;
+    }
+    
+    private void retry(Shard shard) {
+        if (shard.attempts >= maxAttempts) {
+            shard.done.completeExceptionally(new IllegalStateException(
+                "Shard failed after " + shard.attempts + " attempts"));
+        } else {
+            queue.add(shard);
+        }
+    }
+    
+    private static void sendLoad(DataOutputStream out, Problem problem) throws IOException {
+        out.writeByte(MatchWorker.OP_LOAD);
+        out.writeLong(problem.id);
+        out.writeInt(problem.alphabetSize);
+        MatchWorker.writeTable(out, problem.table);
+        MatchWorker.writeCodes(out, problem.firstCodes);
+        MatchWorker.writeCodes(out, problem.secondCodes);
+        out.flush();
+    }
+    
+    private static MatchWorker.Best[] runShard(DataInputStream in, DataOutputStream out, Shard shard)
+            throws IOException {
+        out.writeByte(MatchWorker.OP_SHARD);
+        out.writeLong(shard.problem.id);
+        out.writeInt(shard.from);
+        out.writeInt(shard.to);
+        out.flush();
+        expectOk(in);
+        return new MatchWorker.Best[] {MatchWorker.Best.readFrom(in)};
+    }
+    
+    private static MatchWorker.Best[] runPairs(DataInputStream in, DataOutputStream out, Shard shard)
+            throws IOException {
+        out.writeByte(MatchWorker.OP_PAIRS);
+        out.writeInt(shard.problem.alphabetSize);
+        MatchWorker.writeTable(out, shard.problem.table);
+        out.writeInt(shard.pairs.size());
+        for (int[][] pair : shard.pairs) {
+            MatchWorker.writeCodes(out, pair[0]);
+            MatchWorker.writeCodes(out, pair[1]);
+        }
+        out.flush();
+        expectOk(in);
+        MatchWorker.Best[] results = new MatchWorker.Best[shard.pairs.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = MatchWorker.Best.readFrom(in);
+        }
+        return results;
+    }
+    
+    private static void expectOk(DataInputStream in) throws IOException {
+        if (in.readByte() != MatchWorker.STATUS_OK) {
+            throw new WorkerException(in.readUTF());
+        }
+    }
+    
+    /**
+     * The worker answered with an error instead of a result
+     */
+    private static final class WorkerException extends IOException {
+        private static final long serialVersionUID = 1L;
+        
+        WorkerException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * Worker process for distributed weighted substring matching
+ *
+ * A worker connects to a MatchCoordinator and answers its requests until
+ * the connection closes, then exits. Coordinators launch workers on the
+ * local machine themselves; workers on other hosts can be started by hand
+ * against the coordinator's address.
+ *
+ * Diagonal formulation:
+ * A substring pair of length L ending at (i, j) lies on diagonal d = j - i,
+ * and its score is the sum of the L cell scores along that diagonal. For
+ * every start position the worker accumulates forward, cell by cell, which
+ * adds in exactly the order of the single-process DP, so scores are
+ * bit-identical. It needs O(1) memory beyond the sequences.
+ *
+ * Protocol (DataInput/DataOutput over one socket; sequences as unsigned
+ * byte codes, score tables as size followed by size^2 doubles). On
+ * connecting the worker sends its process id as a long, then answers:
+ *   LOAD  id, table, seq1, seq2        -> OK
+ *   SHARD id, firstDiagonal, endDiagonal  -> OK, best
+ *   PAIRS table, count, count x (seq1, seq2) -> OK, count x best
+ *   PING                               -> OK
+ * where best is (double score, int length, int end1, int end2), length 0
+ * meaning no candidate, and any failure answers ERROR, message. The
+ * coordinator pings idle connections, so a worker that hears nothing for
+ * IDLE_TIMEOUT_MILLIS assumes the coordinator is gone and exits.
+ *
+ * Usage:
+ *   java MatchWorker <coordinator host> <coordinator port>
+ */
+
+import java.io.*;
+import java.net.*;
+
+public class MatchWorker {
+    
+    static final byte OP_LOAD = 1;
+    static final byte OP_SHARD = 2;
+    static final byte OP_PAIRS = 3;
+    static final byte OP_PING = 4;
+    
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+    
+    static final int IDLE_TIMEOUT_MILLIS = 30_000;
+    
+    private long problemId = -1;
+    private double[] table;
+    private int alphabetSize;
+    private int[] firstCodes;
+    private int[] secondCodes;
+    
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java MatchWorker <coordinator host> <coordinator port>");
+            System.exit(2);
+        }
+        try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeLong(ProcessHandle.current().pid());
+            out.flush();
+            new MatchWorker().serve(
+                new DataInputStream(new BufferedInputStream(socket.getInputStream())), out);
+        } catch (IOException e) {
+            // Coordinator went away; nothing left to serve
+        }
+    }
+    
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            int op;
+            try {
+                op = in.readByte();
+            } catch (EOFException e) {
+                return;
+            }
+            try {
+                switch (op) {
+                    case OP_LOAD:
+                        problemId = in.readLong();
+                        alphabetSize = in.readInt();
+                        table = readTable(in, alphabetSize);
+                        firstCodes = readCodes(in);
+                        secondCodes = readCodes(in);
+                        out.writeByte(STATUS_OK);
+                        break;
+                    case OP_SHARD:
+                        long id = in.readLong();
+                        int firstDiagonal = in.readInt();
+                        int endDiagonal = in.readInt();
+                        if (id != problemId) {
+                            throw new IllegalStateException("Problem " + id + " was never loaded");
+                        }
+                        Best best = new Best();
+                        scanDiagonals(table, alphabetSize, firstCodes, secondCodes,
+                            firstDiagonal, endDiagonal, best);
+                        out.writeByte(STATUS_OK);
+                        best.writeTo(out);
+                        break;
+                    case OP_PAIRS:
+                        int size = in.readInt();
+                        double[] pairTable = readTable(in, size);
+                        int count = in.readInt();
+                        Best[] results = new Best[count];
+                        for (int i = 0; i < count; i++) {
+                            int[] first = readCodes(in);
+                            int[] second = readCodes(in);
+                            results[i] = new Best();
+                            scanDiagonals(pairTable, size, first, second,
+                                -(first.length - 1), second.length, results[i]);
+                        }
+                        out.writeByte(STATUS_OK);
+                        for (Best result : results) {
+                            result.writeTo(out);
+                        }
+                        break;
+                    case OP_PING:
+                        out.writeByte(STATUS_OK);
+                        break;
+                    default:
+                        throw new IOException("Unknown operation " + op);
+                }
+            } catch (RuntimeException e) {
+                out.writeByte(STATUS_ERROR);
+                out.writeUTF(String.valueOf(e));
+            }
+            out.flush();
+        }
+    }
+    
+    /**
+     * Best substring pair over diagonals [firstDiagonal, endDiagonal),
+     * merged into best with the single-process tie-break
+     */
+    static void scanDiagonals(double[] table, int alphabetSize, int[] firstCodes, int[] secondCodes,
+                              int firstDiagonal, int endDiagonal, Best best) {
+        int len1 = firstCodes.length;
+        int len2 = secondCodes.length;
+        int from = Math.max(firstDiagonal, -(len1 - 1));
+        int to = Math.min(endDiagonal, len2);
+        
+        for (int diagonal = from; diagonal < to; diagonal++) {
+            int start1 = Math.max(0, -diagonal);
+            int start2 = start1 + diagonal;
+            int cells = Math.min(len1 - start1, len2 - start2);
+            
+            for (int start = 0; start < cells; start++) {
+                double score = 0.0;
+                for (int end = start; end < cells; end++) {
+                    double cellScore = table[firstCodes[start1 + end] * alphabetSize
+                        + secondCodes[start2 + end]];
+                    score = (end == start) ? cellScore : score + cellScore;
+                    best.offer(score, end - start + 1, start1 + end, start2 + end);
+                }
+            }
+        }
+    }
+    
+    private static double[] readTable(DataInputStream in, int size) throws IOException {
+        double[] values = new double[size * size];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+    
+    private static int[] readCodes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        int[] codes = new int[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            codes[i] = bytes[i] & 0xFF;
+        }
+        return codes;
+    }
+    
+    static void writeTable(DataOutputStream out, double[] table) throws IOException {
+        for (double value : table) {
+            out.writeDouble(value);
+        }
+    }
+    
+    static void writeCodes(DataOutputStream out, int[] codes) throws IOException {
+        byte[] bytes = new byte[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            bytes[i] = (byte) codes[i];
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    /**
+     * Best candidate so far. Matches the single-process DP, which scans
+     * by length, then end1, then end2 and keeps the first strict maximum:
+     * a higher score wins, and equal scores go to the smaller
+     * (length, end1, end2).
+     */
+    static final class Best {
+        double score = Double.NEGATIVE_INFINITY;
+        int length;
+        int end1 = -1;
+        int end2 = -1;
+        
+        void offer(double candidateScore, int candidateLength, int candidateEnd1, int candidateEnd2) {
+            if (candidateLength == 0) {
+                return;
+            }
+            boolean better = length == 0
+                || candidateScore > score
+                || (candidateScore == score
+                    && (candidateLength != length ? candidateLength < length
+                        : candidateEnd1 != end1 ? candidateEnd1 < end1
+                        : candidateEnd2 < end2));
+            if (better) {
+                score = candidateScore;
+                length = candidateLength;
+                end1 = candidateEnd1;
+                end2 = candidateEnd2;
+            }
+        }
+        
+        void merge(Best other) {
+            offer(other.score, other.length, other.end1, other.end2);
+        }
+        
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeDouble(score);
+            out.writeInt(length);
+            out.writeInt(end1);
+            out.writeInt(end2);
+        }
+        
+        static Best readFrom(DataInputStream in) throws IOException {
+            Best best = new Best();
+            best.score = in.readDouble();
+            best.length = in.readInt();
+            best.end1 = in.readInt();
+            best.end2 = in.readInt();
+            return best;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * Off-heap binary grid for the Largest Zero Sub-matrix problem
+ *
+ * Storage:
+ * Cells live in direct (native) memory, one byte per cell, addressed with
+ * long offsets so the grid can exceed 2^31 cells. The memory is split into
+ * chunks of whole rows, each at most 1 GB. The GC never traces the cell
+ * data, and no row carries an object header.
+ *
+ * Lifecycle:
+ * The grid owns its memory until close() is called. After that any access
+ * throws IllegalStateException. Row copies hold a read lock and close()
+ * takes the write lock, so closing waits for them instead of freeing
+ * memory under them. get and set take no lock: callers must not close the
+ * grid while still using them.
+ *
+ * With --add-modules jdk.incubator.foreign the memory comes from a
+ * ResourceScope and close() frees it (see foreign/ForeignArena). Without
+ * it the chunks are direct buffers, freed once they become unreachable.
+ * Either way it counts against -XX:MaxDirectMemorySize, which should be
+ * raised to the grid size (it defaults to the maximum heap size).
+ */
+
+import java.lang.reflect.*;
+import java.nio.*;
+import java.util.concurrent.locks.*;
+
+public class OffHeapGrid implements AutoCloseable {
+    
+    private static final long CHUNK_BYTES = 1L << 30;
+    
+    private final int rows;
+    private final int cols;
+    private final int rowsPerChunk;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NativeArena arena = newArena();
+    private volatile ByteBuffer[] chunks;
+    
+    public OffHeapGrid(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Invalid grid dimensions " + rows + " x " + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowsPerChunk = (int) Math.max(1, Math.min(rows, CHUNK_BYTES / cols));
+        
+        int chunkCount = (rows + rowsPerChunk - 1) / rowsPerChunk;
+        ByteBuffer[] allocated = new ByteBuffer[chunkCount];
+        try {
+            for (int i = 0; i < chunkCount; i++) {
+                int chunkRows = Math.min(rowsPerChunk, rows - i * rowsPerChunk);
+                allocated[i] = arena.allocate(chunkRows * cols);
+            }
+        } catch (OutOfMemoryError e) {
+            arena.close();
+            throw e;
+        }
+        this.chunks = allocated;
+    }
+    
+    /**
+     * Copy a dense 0/1 matrix off-heap
+     */
+    public static OffHeapGrid fromDense(byte[][] matrix) {
+        OffHeapGrid grid = new OffHeapGrid(matrix.length, matrix[0].length);
+        for (int row = 0; row < matrix.length; row++) {
+            grid.writeRow(row, matrix[row]);
+        }
+        return grid;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public int getCols() {
+        return cols;
+    }
+    
+    public long getCellCount() {
+        return (long) rows * cols;
+    }
+    
+    /**
+     * Unlocked; must not race close()
+     */
+    public byte get(int row, int col) {
+        return chunkFor(row).get(offsetOf(row, col));
+    }
+    
+    /**
+     * Unlocked; must not race close()
+     */
+    public void set(int row, int col, byte value) {
+        chunkFor(row).put(offsetOf(row, col), value);
+    }
+    
+    /**
+     * Bulk-copy one row in from a heap array of length cols
+     */
+    public void writeRow(int row, byte[] values) {
+        lock.readLock().lock();
+        try {
+            ByteBuffer chunk = chunkFor(row).duplicate();
+            chunk.position(offsetOf(row, 0));
+            chunk.put(values, 0, cols);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Bulk-copy one row out into a heap array of length cols
+     */
+    public void readRow(int row, byte[] values) {
+        lock.readLock().lock();
+        try {
+            ByteBuffer chunk = chunkFor(row).duplicate();
+            chunk.position(offsetOf(row, 0));
+            chunk.get(values, 0, cols);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean isOpen() {
+        return chunks != null;
+    }
+    
+    /**
+     * Free the native memory once row copies in progress have finished
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (chunks == null) {
+                return;
+            }
+            chunks = null;
+            arena.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private ByteBuffer chunkFor(int row) {
+        ByteBuffer[] current = chunks;
+        if (current == null) {
+            throw new IllegalStateException("Grid has been closed");
+        }
+        return current[row / rowsPerChunk];
+    }
+    
+    private int offsetOf(int row, int col) {
+        return (int) ((long) (row % rowsPerChunk) * cols + col);
+    }
+    
+    /**
+     * Native memory that close() frees all at once; buffers handed out by
+     * allocate must not be used afterwards
+     */
+    interface NativeArena extends AutoCloseable {
+        ByteBuffer allocate(int bytes);
+        
+        @Override
+        void close();
+    }
+    
+    /**
+     * A jdk.incubator.foreign arena when that module is present, otherwise
+     * direct buffers whose memory is reclaimed once they are unreachable
+     */
+    static NativeArena newArena() {
+        if (FOREIGN_ARENA != null) {
+            try {
+                return FOREIGN_ARENA.newInstance();
+            } catch (ReflectiveOperationException e) {
+                // Fall back to GC-driven release
+            }
+        }
+        return new DirectArena();
+    }
+    
+    public static boolean isExplicitReleaseAvailable() {
+        return FOREIGN_ARENA != null;
+    }
+    
+    private static final Constructor<? extends NativeArena> FOREIGN_ARENA = loadForeignArena();
+    
+    private static Constructor<? extends NativeArena> loadForeignArena() {
+        try {
+            Constructor<? extends NativeArena> constructor = Class.forName("ForeignArena")
+                .asSubclass(NativeArena.class)
+                .getDeclaredConstructor();
+            // Without the module this fails here rather than on first use
+            constructor.newInstance().close();
+            return constructor;
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            return null;
+        }
+    }
+    
+    private static final class DirectArena implements NativeArena {
+        @Override
+        public ByteBuffer allocate(int bytes) {
+            return ByteBuffer.allocateDirect(bytes);
+        }
+        
+        @Override
+        public void close() {
+            // Nothing to free eagerly
+        }
+    }
+}
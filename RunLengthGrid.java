@@ -0,0 +1,124 @@
+/**
+ * Run-length encoded binary grid for the Largest Zero Sub-matrix problem
+ *
+ * Representation:
+ * Each row stores only its runs of 1s as (start column, length) pairs,
+ * sorted by start and non-overlapping. Runs of 0s are the gaps between them.
+ *
+ * Memory: O(total runs) instead of O(m * n)
+ */
+
+import java.util.*;
+
+public class RunLengthGrid {
+    
+    private final int rows;
+    private final int cols;
+    
+    // Per row: start column and length of every run of 1s
+    private final int[][] runStarts;
+    private final int[][] runLengths;
+    
+    public RunLengthGrid(int rows, int cols, int[][] runStarts, int[][] runLengths) {
+        if (runStarts.length != rows || runLengths.length != rows) {
+            throw new IllegalArgumentException("Expected run arrays for " + rows + " rows");
+        }
+        for (int row = 0; row < rows; row++) {
+            if (runStarts[row].length != runLengths[row].length) {
+                throw new IllegalArgumentException("Run arrays differ in length at row " + row);
+            }
+            int end = 0;
+            for (int i = 0; i < runStarts[row].length; i++) {
+                int start = runStarts[row][i];
+                int length = runLengths[row][i];
+                if (start < end || length <= 0 || start + length > cols) {
+                    throw new IllegalArgumentException("Invalid run " + i + " at row " + row);
+                }
+                end = start + length;
+            }
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.runStarts = runStarts;
+        this.runLengths = runLengths;
+    }
+    
+    /**
+     * Encode a dense 0/1 matrix
+     */
+    public static RunLengthGrid fromDense(byte[][] matrix) {
+        int rows = matrix.length;
+        int cols = matrix[0].length;
+        int[][] starts = new int[rows][];
+        int[][] lengths = new int[rows][];
+        
+        int[] rowStarts = new int[cols / 2 + 1];
+        int[] rowLengths = new int[cols / 2 + 1];
+        for (int row = 0; row < rows; row++) {
+            int count = 0;
+            int col = 0;
+            while (col < cols) {
+                if (matrix[row][col] == 0) {
+                    col++;
+                    continue;
+                }
+                int start = col;
+                while (col < cols && matrix[row][col] != 0) {
+                    col++;
+                }
+                rowStarts[count] = start;
+                rowLengths[count] = col - start;
+                count++;
+            }
+            starts[row] = Arrays.copyOf(rowStarts, count);
+            lengths[row] = Arrays.copyOf(rowLengths, count);
+        }
+        
+        return new RunLengthGrid(rows, cols, starts, lengths);
+    }
+    
+    /**
+     * Decode back to a dense 0/1 matrix
+     */
+    public byte[][] toDense() {
+        byte[][] matrix = new byte[rows][cols];
+        for (int row = 0; row < rows; row++) {
+            for (int i = 0; i < runStarts[row].length; i++) {
+                int start = runStarts[row][i];
+                Arrays.fill(matrix[row], start, start + runLengths[row][i], (byte) 1);
+            }
+        }
+        return matrix;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public int getCols() {
+        return cols;
+    }
+    
+    public int getRunCount(int row) {
+        return runStarts[row].length;
+    }
+    
+    public int getRunStart(int row, int index) {
+        return runStarts[row][index];
+    }
+    
+    public int getRunLength(int row, int index) {
+        return runLengths[row][index];
+    }
+    
+    /**
+     * Total number of 1-runs across all rows
+     */
+    public long getTotalRuns() {
+        long total = 0;
+        for (int[] starts : runStarts) {
+            total += starts.length;
+        }
+        return total;
+    }
+}
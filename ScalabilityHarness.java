@@ -0,0 +1,613 @@
+/**
+ * Scalability harness for both solvers
+ *
+ * Method:
+ * Each engine runs on inputs whose size grows geometrically from its start
+ * size. Every size gets untimed warmup runs followed by timed repetitions.
+ * Warmup lasts at least a set time and a set number of runs, then goes on
+ * until the last three runs agree within 10% (so the JIT has settled),
+ * giving up after four times the set time. Every run uses a fresh solver,
+ * so per-run tables are allocated and measured each time. Per repetition
+ * the harness records wall time and the heap bytes the thread allocated.
+ * Across the repetitions it records the peak heap occupancy, summed over
+ * all heap pools and including the input itself.
+ *
+ * A sweep stops at the first size that exceeds the time budget (median run
+ * time) or the heap budget (peak occupancy), or runs out of memory. It
+ * also stops before a size whose projected time is well past the budget.
+ *
+ * Output:
+ *   CSV      - one line per engine and size
+ *   summary  - per engine: sizes covered, stop reason, and the empirical
+ *              exponents of time and allocation, fitted by least squares
+ *              on log(size) vs log(measurement)
+ *
+ * Usage:
+ *   java ScalabilityHarness [square|match|all] [--budget-ms N]
+ *       [--heap-fraction F] [--warmup N] [--warmup-ms N] [--repetitions N]
+ *       [--factor F] [--csv FILE]
+ *   Without --csv the CSV lines go to stdout ahead of the summary.
+ */
+
+import java.io.*;
+import java.lang.management.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+public class ScalabilityHarness {
+    
+    private static final double ZERO_DENSITY = 0.3;
+    private static final double MISMATCH_PENALTY = 10.0;
+    private static final long SEED = 12345;
+    
+    // Time fits ignore runs shorter than FIT_MIN_MILLIS or more than
+    // FIT_RANGE times faster than the slowest run, when two runs remain
+    private static final double FIT_MIN_MILLIS = 1.0;
+    private static final double FIT_RANGE = 30.0;
+    // Skip a size projected to take this many times the budget
+    private static final double PROJECTION_LIMIT = 4.0;
+    // Warmup ends once this many consecutive runs agree within the spread,
+    // or after WARMUP_CAP times the minimum warmup time
+    private static final int STABLE_RUNS = 3;
+    private static final double STABLE_SPREAD = 1.1;
+    private static final int WARMUP_CAP = 4;
+    
+    private long runBudgetNanos = 250_000_000L;
+    private double heapBudgetFraction = 0.5;
+    private int warmups = 2;
+    private long warmupNanos = 500_000_000L;
+    private int repetitions = 5;
+    private double growthFactor = 2.0;
+    
+    public void setRunBudgetMillis(long millis) {
+        this.runBudgetNanos = millis * 1_000_000L;
+    }
+    
+    public void setHeapBudgetFraction(double fraction) {
+        this.heapBudgetFraction = fraction;
+    }
+    
+    /**
+     * Minimum number of warmup runs per size
+     */
+    public void setWarmups(int warmups) {
+        this.warmups = warmups;
+    }
+    
+    /**
+     * Minimum warmup time per size; 0 warms up for exactly the minimum
+     * number of runs
+     */
+    public void setWarmupMillis(long millis) {
+        this.warmupNanos = millis * 1_000_000L;
+    }
+    
+    public void setRepetitions(int repetitions) {
+        this.repetitions = Math.max(1, repetitions);
+    }
+    
+    public void setGrowthFactor(double factor) {
+        if (factor <= 1.0) {
+            throw new IllegalArgumentException("Growth factor must exceed 1");
+        }
+        this.growthFactor = factor;
+    }
+    
+    // ------------------------------------------------------------------
+    // Engines
+    // ------------------------------------------------------------------
+    
+    /**
+     * One solver run on a prepared input; close() releases the input
+     */
+    public interface Trial extends AutoCloseable {
+        String run() throws IOException;
+        
+        @Override
+        default void close() throws IOException {
+        }
+    }
+    
+    public interface TrialFactory {
+        Trial create(int size) throws IOException;
+    }
+    
+    public static class Engine {
+        public final String name;
+        public final String sizeUnit;
+        public final int startSize;
+        public final TrialFactory factory;
+        
+        public Engine(String name, String sizeUnit, int startSize, TrialFactory factory) {
+            this.name = name;
+            this.sizeUnit = sizeUnit;
+            this.startSize = startSize;
+            this.factory = factory;
+        }
+    }
+    
+    /**
+     * Every largest-zero-square engine available in this JVM, on n x n
+     * grids with 30% zeros
+     */
+    public static List<Engine> squareEngines() {
+        List<Engine> engines = new ArrayList<>();
+        String unit = "n (n x n grid)";
+        
+        engines.add(new Engine("dense-scalar", unit, 64, n -> {
+            byte[][] grid = squareGrid(n);
+            return () -> squareSummary(denseFinder(false, false).findLargestZeroSquare(grid));
+        }));
+        engines.add(new Engine("dense-pruned", unit, 64, n -> {
+            byte[][] grid = squareGrid(n);
+            return () -> squareSummary(denseFinder(true, false).findLargestZeroSquare(grid));
+        }));
+        if (LargestZeroSubmatrix.isVectorKernelAvailable()) {
+            engines.add(new Engine("dense-vector", unit, 64, n -> {
+                byte[][] grid = squareGrid(n);
+                return () -> squareSummary(denseFinder(true, true).findLargestZeroSquare(grid));
+            }));
+        }
+        engines.add(new Engine("run-length", unit, 64, n -> {
+            RunLengthGrid grid = RunLengthGrid.fromDense(squareGrid(n));
+            return () -> squareSummary(new LargestZeroSubmatrix().findLargestZeroSquare(grid));
+        }));
+        engines.add(new Engine("sparse", unit, 64, n -> {
+            WorkloadGenerator.BitGrid grid = WorkloadGenerator.randomGrid(n, n, ZERO_DENSITY, SEED);
+            int count = (int) grid.countObstacles();
+            int[] obstacleRows = new int[count];
+            int[] obstacleCols = new int[count];
+            int index = 0;
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    if (grid.isObstacle(row, col)) {
+                        obstacleRows[index] = row;
+                        obstacleCols[index] = col;
+                        index++;
+                    }
+                }
+            }
+            return () -> squareSummary(new LargestZeroSubmatrix()
+                .findLargestZeroSquareSparse(n, n, obstacleRows, obstacleCols));
+        }));
+        engines.add(new Engine("off-heap", unit, 64, n -> {
+            OffHeapGrid grid = WorkloadGenerator.randomGrid(n, n, ZERO_DENSITY, SEED).toOffHeap();
+            return new Trial() {
+                @Override
+                public String run() {
+                    return squareSummary(new LargestZeroSubmatrix().findLargestZeroSquare(grid));
+                }
+                
+                @Override
+                public void close() {
+                    grid.close();
+                }
+            };
+        }));
+        engines.add(new Engine("out-of-core", unit, 64, n -> {
+            Path file = Files.createTempFile("scalability-", ".grid");
+            WorkloadGenerator.randomGrid(n, n, ZERO_DENSITY, SEED).writeGridFile(file);
+            int bandRows = Math.max(1, Math.min(n, (1 << 20) / n));
+            return new Trial() {
+                @Override
+                public String run() throws IOException {
+                    return squareSummary(new LargestZeroSubmatrix().findLargestZeroSquare(file, bandRows));
+                }
+                
+                @Override
+                public void close() throws IOException {
+                    Files.deleteIfExists(file);
+                }
+            };
+        }));
+        return engines;
+    }
+    
+    /**
+     * Weighted substring matching on two random A-Z sequences of length n
+     */
+    public static List<Engine> matchEngines() {
+        List<Engine> engines = new ArrayList<>();
+        engines.add(new Engine("match-uniform", "n (both lengths)", 32, n -> {
+            String first = new String(WorkloadGenerator.randomSequence(n, WorkloadGenerator.UPPERCASE, SEED),
+                StandardCharsets.US_ASCII);
+            String second = new String(WorkloadGenerator.randomSequence(n, WorkloadGenerator.UPPERCASE, SEED + 1),
+                StandardCharsets.US_ASCII);
+            double[] weights = WeightedSubstringMatcher.createUniformWeights();
+            return () -> {
+                WeightedSubstringMatcher matcher = new WeightedSubstringMatcher(weights, MISMATCH_PENALTY);
+                WeightedSubstringMatcher.SubstringMatch match = matcher.findBestMatch(first, second);
+                return "length " + match.length + ", score " + match.score;
+            };
+        }));
+        return engines;
+    }
+    
+    /**
+     * A new dense solver per run: reusing one would keep its DP rows and
+     * hide their allocation from the measurement
+     */
+    private static LargestZeroSubmatrix denseFinder(boolean pruning, boolean vectorKernel) {
+        LargestZeroSubmatrix finder = new LargestZeroSubmatrix();
+        finder.setPruningEnabled(pruning);
+        finder.setVectorKernelEnabled(vectorKernel);
+        return finder;
+    }
+    
+    private static byte[][] squareGrid(int n) {
+        return WorkloadGenerator.randomGrid(n, n, ZERO_DENSITY, SEED).toDense();
+    }
+    
+    private static String squareSummary(LargestZeroSubmatrix.SquareResult result) {
+        return result.size + " x " + result.size;
+    }
+    
+    // ------------------------------------------------------------------
+    // Sweep
+    // ------------------------------------------------------------------
+    
+    /**
+     * Measurements of one engine at one size
+     */
+    public static class Point {
+        public final int size;
+        public final int warmupRuns;
+        public final double medianMillis;
+        public final double minMillis;
+        public final double maxMillis;
+        public final long allocatedBytes;
+        public final long peakHeapBytes;
+        public final String result;
+        
+        Point(int size, int warmupRuns, double medianMillis, double minMillis, double maxMillis,
+              long allocatedBytes, long peakHeapBytes, String result) {
+            this.size = size;
+            this.warmupRuns = warmupRuns;
+            this.medianMillis = medianMillis;
+            this.minMillis = minMillis;
+            this.maxMillis = maxMillis;
+            this.allocatedBytes = allocatedBytes;
+            this.peakHeapBytes = peakHeapBytes;
+            this.result = result;
+        }
+    }
+    
+    /**
+     * All points of one engine, why the sweep ended, and fitted exponents
+     * (NaN when fewer than two usable points exist)
+     */
+    public static class Sweep {
+        public final Engine engine;
+        public final List<Point> points = new ArrayList<>();
+        public String stopReason = "";
+        public double timeExponent = Double.NaN;
+        public double allocationExponent = Double.NaN;
+        
+        Sweep(Engine engine) {
+            this.engine = engine;
+        }
+    }
+    
+    /**
+     * Sweep every engine, writing CSV lines to csv as points complete and
+     * the summary table to summary at the end
+     */
+    public List<Sweep> run(List<Engine> engines, PrintWriter csv, PrintWriter summary) throws IOException {
+        csv.println("engine,size,warmups,repetitions,median_ms,min_ms,max_ms,"
+            + "allocated_bytes,peak_heap_bytes,result");
+        csv.flush();
+        
+        List<Sweep> sweeps = new ArrayList<>();
+        for (Engine engine : engines) {
+            Sweep sweep = sweep(engine, csv);
+            fitExponents(sweep);
+            sweeps.add(sweep);
+        }
+        writeSummary(sweeps, summary);
+        return sweeps;
+    }
+    
+    private Sweep sweep(Engine engine, PrintWriter csv) throws IOException {
+        Sweep sweep = new Sweep(engine);
+        long heapBudget = (long) (Runtime.getRuntime().maxMemory() * heapBudgetFraction);
+        
+        int size = engine.startSize;
+        while (true) {
+            Point point;
+            try {
+                point = measure(engine, size);
+            } catch (OutOfMemoryError e) {
+                sweep.stopReason = "out of memory at n=" + size;
+                break;
+            }
+            sweep.points.add(point);
+            csv.printf(Locale.ROOT, "%s,%d,%d,%d,%.4f,%.4f,%.4f,%d,%d,\"%s\"%n",
+                engine.name, size, point.warmupRuns, repetitions, point.medianMillis, point.minMillis,
+                point.maxMillis, point.allocatedBytes, point.peakHeapBytes, point.result);
+            csv.flush();
+            
+            if (point.medianMillis * 1_000_000L > runBudgetNanos) {
+                sweep.stopReason = "time budget";
+                break;
+            }
+            if (point.peakHeapBytes > heapBudget) {
+                sweep.stopReason = "heap budget";
+                break;
+            }
+            
+            int next = (int) Math.min(Integer.MAX_VALUE, Math.max(size + 1L, Math.round(size * growthFactor)));
+            if (next == size || projectedMillis(sweep, next) * 1_000_000L > PROJECTION_LIMIT * runBudgetNanos) {
+                sweep.stopReason = "projected over time budget at n=" + next;
+                break;
+            }
+            size = next;
+        }
+        return sweep;
+    }
+    
+    private Point measure(Engine engine, int size) throws IOException {
+        try (Trial trial = engine.factory.create(size)) {
+            int warmupRuns = warmUp(trial);
+            
+            System.gc();
+            List<MemoryPoolMXBean> heapPools = heapPools();
+            for (MemoryPoolMXBean pool : heapPools) {
+                pool.resetPeakUsage();
+            }
+            
+            long[] times = new long[repetitions];
+            long[] allocations = new long[repetitions];
+            String result = "";
+            for (int i = 0; i < repetitions; i++) {
+                long allocatedBefore = SolverMetrics.currentThreadAllocatedBytes();
+                long startTime = System.nanoTime();
+                result = trial.run();
+                times[i] = System.nanoTime() - startTime;
+                long allocatedAfter = SolverMetrics.currentThreadAllocatedBytes();
+                allocations[i] = (allocatedBefore < 0) ? -1 : allocatedAfter - allocatedBefore;
+            }
+            
+            long peakHeap = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+            
+            Arrays.sort(times);
+            Arrays.sort(allocations);
+            return new Point(size, warmupRuns, times[repetitions / 2] / 1_000_000.0, times[0] / 1_000_000.0,
+                times[repetitions - 1] / 1_000_000.0, allocations[repetitions / 2], peakHeap, result);
+        }
+    }
+    
+    /**
+     * Untimed runs until the JIT has settled; returns how many were made
+     */
+    private int warmUp(Trial trial) throws IOException {
+        long startTime = System.nanoTime();
+        long[] recent = new long[STABLE_RUNS];
+        int runs = 0;
+        while (true) {
+            long elapsed = System.nanoTime() - startTime;
+            if (runs >= warmups && elapsed >= warmupNanos
+                    && (isStable(recent, runs) || elapsed >= WARMUP_CAP * warmupNanos)) {
+                return runs;
+            }
+            long runStart = System.nanoTime();
+            trial.run();
+            recent[runs % STABLE_RUNS] = System.nanoTime() - runStart;
+            runs++;
+        }
+    }
+    
+    private static boolean isStable(long[] recent, int runs) {
+        if (runs < recent.length) {
+            return false;
+        }
+        long fastest = Long.MAX_VALUE;
+        long slowest = 0;
+        for (long time : recent) {
+            fastest = Math.min(fastest, time);
+            slowest = Math.max(slowest, time);
+        }
+        return slowest <= fastest * STABLE_SPREAD;
+    }
+    
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+    
+    /**
+     * Extrapolate from the last point, using the exponent of the last two
+     * points (or 3, the worst solver exponent, with only one point)
+     */
+    private static double projectedMillis(Sweep sweep, int nextSize) {
+        List<Point> points = sweep.points;
+        Point last = points.get(points.size() - 1);
+        double exponent = 3.0;
+        if (points.size() >= 2) {
+            Point previous = points.get(points.size() - 2);
+            if (previous.medianMillis > 0 && last.medianMillis > 0) {
+                exponent = Math.log(last.medianMillis / previous.medianMillis)
+                    / Math.log((double) last.size / previous.size);
+                exponent = Math.max(1.0, Math.min(4.0, exponent));
+            }
+        }
+        return last.medianMillis * Math.pow((double) nextSize / last.size, exponent);
+    }
+    
+    // ------------------------------------------------------------------
+    // Fitting and summary
+    // ------------------------------------------------------------------
+    
+    private static void fitExponents(Sweep sweep) {
+        // Small sizes are dominated by fixed costs and timer noise, so the
+        // time fit uses only runs within FIT_RANGE of the slowest one
+        double slowest = 0;
+        for (Point point : sweep.points) {
+            slowest = Math.max(slowest, point.medianMillis);
+        }
+        double threshold = Math.max(FIT_MIN_MILLIS, slowest / FIT_RANGE);
+        
+        List<double[]> timePoints = new ArrayList<>();
+        List<double[]> allTimePoints = new ArrayList<>();
+        List<double[]> allocationPoints = new ArrayList<>();
+        for (Point point : sweep.points) {
+            double logSize = Math.log(point.size);
+            if (point.medianMillis > 0) {
+                allTimePoints.add(new double[] {logSize, Math.log(point.medianMillis)});
+                if (point.medianMillis >= threshold) {
+                    timePoints.add(allTimePoints.get(allTimePoints.size() - 1));
+                }
+            }
+            if (point.allocatedBytes > 0) {
+                allocationPoints.add(new double[] {logSize, Math.log(point.allocatedBytes)});
+            }
+        }
+        sweep.timeExponent = slope(timePoints.size() >= 2 ? timePoints : allTimePoints);
+        sweep.allocationExponent = slope(allocationPoints);
+    }
+    
+    /**
+     * Least-squares slope of y on x
+     */
+    static double slope(List<double[]> points) {
+        int count = points.size();
+        if (count < 2) {
+            return Double.NaN;
+        }
+        double meanX = 0;
+        double meanY = 0;
+        for (double[] point : points) {
+            meanX += point[0];
+            meanY += point[1];
+        }
+        meanX /= count;
+        meanY /= count;
+        double covariance = 0;
+        double variance = 0;
+        for (double[] point : points) {
+            covariance += (point[0] - meanX) * (point[1] - meanY);
+            variance += (point[0] - meanX) * (point[0] - meanX);
+        }
+        return (variance == 0) ? Double.NaN : covariance / variance;
+    }
+    
+    private void writeSummary(List<Sweep> sweeps, PrintWriter writer) {
+        writer.printf("Sizes grow by x%.2f; per size at least %d warmup run(s) and %d ms of warmup"
+            + " until stable, then %d timed repetition(s).%n",
+            growthFactor, warmups, warmupNanos / 1_000_000L, repetitions);
+        writer.printf("Budgets: %d ms median run time, %.0f%% of max heap (%d MB) peak occupancy.%n",
+            runBudgetNanos / 1_000_000L, heapBudgetFraction * 100,
+            Runtime.getRuntime().maxMemory() >> 20);
+        writer.println();
+        writer.println("--------------------------------------------------------------------------------");
+        writer.printf("%-14s | %-13s | %-10s | %-10s | %-8s | %-8s | %s%n",
+            "Engine", "Sizes (n)", "Time (ms)", "Alloc (KB)", "Time exp", "Alloc exp", "Stopped by");
+        writer.println("--------------------------------------------------------------------------------");
+        for (Sweep sweep : sweeps) {
+            if (sweep.points.isEmpty()) {
+                writer.printf("%-14s | %-13s | %-10s | %-10s | %-8s | %-8s | %s%n",
+                    sweep.engine.name, "-", "-", "-", "-", "-", sweep.stopReason);
+                continue;
+            }
+            Point first = sweep.points.get(0);
+            Point last = sweep.points.get(sweep.points.size() - 1);
+            writer.printf("%-14s | %-13s | %10.2f | %10d | %8s | %9s | %s%n",
+                sweep.engine.name, first.size + ".." + last.size, last.medianMillis,
+                last.allocatedBytes / 1024, exponent(sweep.timeExponent),
+                exponent(sweep.allocationExponent), sweep.stopReason);
+        }
+        writer.println("--------------------------------------------------------------------------------");
+        writer.println();
+        writer.println("Time (ms) and Alloc (KB) are the median run and its allocation at the largest");
+        writer.println("size. Exponents k fit time ~ n^k and allocated bytes ~ n^k over the sweep.");
+        writer.flush();
+    }
+    
+    private static String exponent(double value) {
+        return Double.isNaN(value) ? "n/a" : String.format(Locale.ROOT, "%.2f", value);
+    }
+    
+    // ------------------------------------------------------------------
+    // Command line
+    // ------------------------------------------------------------------
+    
+    public static void main(String[] args) throws IOException {
+        ScalabilityHarness harness = new ScalabilityHarness();
+        String suite = "all";
+        String csvFile = null;
+        
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    suite = arg;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--budget-ms":
+                        harness.setRunBudgetMillis(Long.parseLong(value));
+                        break;
+                    case "--heap-fraction":
+                        harness.setHeapBudgetFraction(Double.parseDouble(value));
+                        break;
+                    case "--warmup":
+                        harness.setWarmups(Integer.parseInt(value));
+                        break;
+                    case "--warmup-ms":
+                        harness.setWarmupMillis(Long.parseLong(value));
+                        break;
+                    case "--repetitions":
+                        harness.setRepetitions(Integer.parseInt(value));
+                        break;
+                    case "--factor":
+                        harness.setGrowthFactor(Double.parseDouble(value));
+                        break;
+                    case "--csv":
+                        csvFile = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java ScalabilityHarness [square|match|all] [--budget-ms N] "
+                + "[--heap-fraction F] [--warmup N] [--warmup-ms N] [--repetitions N] [--factor F] "
+                + "[--csv FILE]");
+            System.exit(2);
+        }
+        
+        List<Engine> engines = new ArrayList<>();
+        if (suite.equals("square") || suite.equals("all")) {
+            engines.addAll(squareEngines());
+        }
+        if (suite.equals("match") || suite.equals("all")) {
+            engines.addAll(matchEngines());
+        }
+        if (engines.isEmpty()) {
+            System.err.println("Unknown suite " + suite + " (expected square, match or all)");
+            System.exit(2);
+        }
+        
+        PrintWriter summary = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        if (csvFile == null) {
+            harness.run(engines, summary, summary);
+            return;
+        }
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(Paths.get(csvFile)))) {
+            harness.run(engines, csv, summary);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Substitution scores for the Weighted Approximate Common Substring problem
+ *
+ * score(a, b) is the gain for aligning symbol a of the first sequence with
+ * symbol b of the second. Scores are kept in one flat array indexed by
+ * code(a) * size + code(b), which is the only table the DP reads.
+ *
+ * The original scheme (weight[a] on a match, -penalty otherwise) is the
+ * special case built by fromWeights.
+ */
+
+import java.util.*;
+
+public class ScoringMatrix {
+    
+    // IUPAC nucleotide codes as sets of A=1, C=2, G=4, T=8
+    private static final String IUPAC_SYMBOLS = "ACGTRYSWKMBDHVN";
+    private static final int[] IUPAC_BASES = {
+        1, 2, 4, 8, 1 | 4, 2 | 8, 2 | 4, 1 | 8, 4 | 8, 1 | 2,
+        2 | 4 | 8, 1 | 4 | 8, 1 | 2 | 8, 1 | 2 | 4, 1 | 2 | 4 | 8
+    };
+    
+    private final Alphabet alphabet;
+    private final double[] scores;
+    
+    /**
+     * All-zero matrix over the alphabet
+     */
+    public ScoringMatrix(Alphabet alphabet) {
+        this.alphabet = alphabet;
+        this.scores = new double[alphabet.size() * alphabet.size()];
+    }
+    
+    /**
+     * weights[code] for a match of that symbol, -penalty for any mismatch
+     */
+    public static ScoringMatrix fromWeights(Alphabet alphabet, double[] weights, double penalty) {
+        int size = alphabet.size();
+        if (weights.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " weights for the "
+                + alphabet.getName() + " alphabet, got " + weights.length);
+        }
+        ScoringMatrix matrix = new ScoringMatrix(alphabet);
+        Arrays.fill(matrix.scores, -penalty);
+        for (int code = 0; code < size; code++) {
+            matrix.scores[code * size + code] = weights[code];
+        }
+        return matrix;
+    }
+    
+    /**
+     * The same weight for every match, -penalty for any mismatch
+     */
+    public static ScoringMatrix uniform(Alphabet alphabet, double weight, double penalty) {
+        double[] weights = new double[alphabet.size()];
+        Arrays.fill(weights, weight);
+        return fromWeights(alphabet, weights, penalty);
+    }
+    
+    /**
+     * DNA scoring with IUPAC ambiguity codes: each pair scores its
+     * expectation when both codes resolve uniformly to one of their bases,
+     * so A/A scores match, A/R scores (match - penalty) / 2 and A/C scores
+     * -penalty
+     */
+    public static ScoringMatrix iupac(double match, double penalty) {
+        Alphabet alphabet = Alphabet.DNA;
+        ScoringMatrix matrix = new ScoringMatrix(alphabet);
+        for (int i = 0; i < IUPAC_SYMBOLS.length(); i++) {
+            for (int j = 0; j < IUPAC_SYMBOLS.length(); j++) {
+                int first = IUPAC_BASES[i];
+                int second = IUPAC_BASES[j];
+                double pairs = Integer.bitCount(first) * Integer.bitCount(second);
+                double agreeing = Integer.bitCount(first & second) / pairs;
+                matrix.set(IUPAC_SYMBOLS.charAt(i), IUPAC_SYMBOLS.charAt(j),
+                    agreeing * match - (1.0 - agreeing) * penalty);
+            }
+        }
+        return matrix;
+    }
+    
+    public Alphabet getAlphabet() {
+        return alphabet;
+    }
+    
+    public double score(char first, char second) {
+        return scores[index(first) * alphabet.size() + index(second)];
+    }
+    
+    /**
+     * Set the score of first (from the first sequence) against second
+     */
+    public void set(char first, char second, double score) {
+        scores[index(first) * alphabet.size() + index(second)] = score;
+    }
+    
+    /**
+     * Snapshot of the flat table, indexed code(first) * size + code(second)
+     */
+    double[] toTable() {
+        return scores.clone();
+    }
+    
+    private int index(char symbol) {
+        int code = alphabet.code(symbol);
+        if (code < 0) {
+            throw new IllegalArgumentException("Symbol '" + symbol + "' is not in the "
+                + alphabet.getName() + " alphabet");
+        }
+        return code;
+    }
+}
@@ -0,0 +1,467 @@
+/**
+ * Headless batch front end for both solvers
+ *
+ * Usage:
+ *   java SolverCli match  [options] [input files...]
+ *   java SolverCli square [options] [input files...]
+ *
+ * Options:
+ *   --output FILE            write results to FILE instead of stdout
+ *   --format csv|jsonl       output format (default csv)
+ *   --threads N              worker threads (default: available processors)
+ *   --weights uniform|frequency   match weights (default uniform)
+ *   --penalty P              match mismatch penalty (default 10)
+ *
+ * Input (stdin when no files are given, or for "-"):
+ *   match  - one job per line: two A-Z sequences separated by whitespace
+ *   square - grids separated by blank lines; one row per line, written
+ *            as 0/1 digits with or without spaces
+ *   Lines starting with '#' are ignored in both formats.
+ *
+ * Results are written as jobs complete, so their order may differ from
+ * the input; the job column gives the input position. Failed jobs,
+ * including malformed lines and grids, are reported on stderr and make
+ * the exit status 1; the batch carries on with the next job. Usage errors
+ * and unreadable inputs exit with status 2.
+ */
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+public class SolverCli {
+    
+    private static final int IN_FLIGHT_PER_WORKER = 4;
+    
+    private String mode;
+    private final List<String> inputs = new ArrayList<>();
+    private String outputFile;
+    private boolean jsonLines;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private double[] weights = WeightedSubstringMatcher.createUniformWeights();
+    private double penalty = 10.0;
+    
+    private final AtomicInteger failures = new AtomicInteger();
+    
+    public static void main(String[] args) {
+        SolverCli cli = new SolverCli();
+        try {
+            cli.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java SolverCli match|square [--output FILE] "
+                + "[--format csv|jsonl] [--threads N] [--weights uniform|frequency] "
+                + "[--penalty P] [input files...]");
+            System.exit(2);
+        }
+        
+        try {
+            System.exit(cli.run());
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(2);
+        }
+    }
+    
+    private void parseArguments(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("missing mode");
+        }
+        mode = args[0];
+        if (!mode.equals("match") && !mode.equals("square")) {
+            throw new IllegalArgumentException("unknown mode '" + mode + "'");
+        }
+        
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--output":
+                    outputFile = valueOf(args, ++i, arg);
+                    break;
+                case "--format":
+                    String format = valueOf(args, ++i, arg);
+                    if (!format.equals("csv") && !format.equals("jsonl")) {
+                        throw new IllegalArgumentException("unknown format '" + format + "'");
+                    }
+                    jsonLines = format.equals("jsonl");
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(valueOf(args, ++i, arg));
+                    if (threads <= 0) {
+                        throw new IllegalArgumentException("--threads must be positive");
+                    }
+                    break;
+                case "--weights":
+                    String profile = valueOf(args, ++i, arg);
+                    if (profile.equals("uniform")) {
+                        weights = WeightedSubstringMatcher.createUniformWeights();
+                    } else if (profile.equals("frequency")) {
+                        weights = WeightedSubstringMatcher.createFrequencyWeights();
+                    } else {
+                        throw new IllegalArgumentException("unknown weights '" + profile + "'");
+                    }
+                    break;
+                case "--penalty":
+                    penalty = Double.parseDouble(valueOf(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("unknown option " + arg);
+                    }
+                    inputs.add(arg);
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("-");
+        }
+    }
+    
+    private static String valueOf(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[index];
+    }
+    
+    private int run() throws IOException, InterruptedException {
+        OutputStream stream = (outputFile == null)
+            ? new FileOutputStream(FileDescriptor.out)
+            : Files.newOutputStream(Paths.get(outputFile));
+        try (Writer output = new BufferedWriter(
+                new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16)) {
+            ResultSink sink = new ResultSink(output);
+            if (mode.equals("match")) {
+                runMatches(sink);
+            } else {
+                runSquares(sink);
+            }
+            sink.rethrow();
+        }
+        return failures.get() == 0 ? 0 : 1;
+    }
+    
+    /**
+     * Serializes output lines from all workers
+     */
+    private static final class ResultSink {
+        private final Writer output;
+        private IOException error;
+        
+        ResultSink(Writer output) {
+            this.output = output;
+        }
+        
+        synchronized void write(String line) {
+            if (error != null) {
+                return;
+            }
+            try {
+                output.write(line);
+                output.write('\n');
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        
+        synchronized void rethrow() throws IOException {
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+    
+    // ------------------------------------------------------------------
+    // Problem 1: sequence pairs
+    // ------------------------------------------------------------------
+    
+    private void runMatches(ResultSink sink) throws IOException, InterruptedException {
+        if (!jsonLines) {
+            sink.write("job,position1,position2,length,mismatches,score,substring1,substring2,millis");
+        }
+        
+        ThreadLocal<WeightedSubstringMatcher> matchers =
+            ThreadLocal.withInitial(() -> new WeightedSubstringMatcher(weights, penalty));
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * IN_FLIGHT_PER_WORKER);
+        Phaser pending = new Phaser(1);
+        
+        try {
+            int job = 0;
+            for (String input : inputs) {
+                try (BufferedReader reader = openInput(input)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (line.isEmpty() || line.startsWith("#")) {
+                            continue;
+                        }
+                        
+                        int jobIndex = job++;
+                        String[] pair = line.split("\\s+");
+                        inFlight.acquire();
+                        pending.register();
+                        workers.execute(() -> {
+                            try {
+                                solveMatch(jobIndex, pair, matchers.get(), sink);
+                            } finally {
+                                inFlight.release();
+                                pending.arriveAndDeregister();
+                            }
+                        });
+                    }
+                }
+            }
+            pending.awaitAdvanceInterruptibly(pending.arriveAndDeregister());
+        } finally {
+            workers.shutdown();
+        }
+    }
+    
+    private void solveMatch(int job, String[] pair, WeightedSubstringMatcher matcher,
+                            ResultSink sink) {
+        if (pair.length != 2) {
+            reportFailure(job, "expected two sequences, got " + pair.length);
+            return;
+        }
+        String first = pair[0].toUpperCase(Locale.ROOT);
+        String second = pair[1].toUpperCase(Locale.ROOT);
+        if (!WeightedSubstringMatcher.isValidString(first)
+                || !WeightedSubstringMatcher.isValidString(second)) {
+            reportFailure(job, "sequences must contain only letters A-Z");
+            return;
+        }
+        
+        long startTime = System.nanoTime();
+        WeightedSubstringMatcher.SubstringMatch match;
+        try {
+            match = matcher.findBestMatch(first, second);
+        } catch (RuntimeException e) {
+            reportFailure(job, e.toString());
+            return;
+        }
+        double millis = (System.nanoTime() - startTime) / 1_000_000.0;
+        
+        if (jsonLines) {
+            sink.write(String.format(Locale.ROOT,
+                "{\"job\":%d,\"position1\":%d,\"position2\":%d,\"length\":%d,"
+                    + "\"mismatches\":%d,\"score\":%s,\"substring1\":\"%s\","
+                    + "\"substring2\":\"%s\",\"millis\":%.3f}",
+                job, match.position1, match.position2, match.length, match.mismatches,
+                jsonNumber(match.score), match.substring1, match.substring2, millis));
+        } else {
+            sink.write(String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%s,%s,%s,%.3f",
+                job, match.position1, match.position2, match.length, match.mismatches,
+                jsonNumber(match.score), match.substring1, match.substring2, millis));
+        }
+    }
+    
+    // ------------------------------------------------------------------
+    // Problem 2: grids
+    // ------------------------------------------------------------------
+    
+    private void runSquares(ResultSink sink) throws IOException, InterruptedException {
+        if (!jsonLines) {
+            sink.write("job,rows,cols,size,top_row,left_col,millis");
+        }
+        
+        List<int[]> dimensions = Collections.synchronizedList(new ArrayList<>());
+        GridReader grids = new GridReader(inputs, dimensions);
+        
+        try (GridBatchSolver solver = new GridBatchSolver(threads)) {
+            solver.solveAll(grids, result -> {
+                int[] size = dimensions.get(result.index);
+                if (!result.isSuccess()) {
+                    reportFailure(size[2], result.error.toString());
+                    return;
+                }
+                LargestZeroSubmatrix.SquareResult square = result.square;
+                double millis = result.elapsedNanos / 1_000_000.0;
+                if (jsonLines) {
+                    sink.write(String.format(Locale.ROOT,
+                        "{\"job\":%d,\"rows\":%d,\"cols\":%d,\"size\":%d,"
+                            + "\"top_row\":%d,\"left_col\":%d,\"millis\":%.3f}",
+                        size[2], size[0], size[1], square.size,
+                        square.topRow, square.leftCol, millis));
+                } else {
+                    sink.write(String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%.3f",
+                        size[2], size[0], size[1], square.size,
+                        square.topRow, square.leftCol, millis));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Lazily parses grids from the inputs, one at a time, recording each
+     * grid's rows, columns and job number by solver index. A malformed
+     * grid still takes a job number: it is skipped up to the next blank
+     * line and reported here, without ever reaching the solver.
+     */
+    private final class GridReader implements Iterable<byte[][]> {
+        private static final byte[][] MALFORMED = new byte[0][];
+        
+        private final List<String> inputs;
+        private final List<int[]> dimensions;
+        
+        GridReader(List<String> inputs, List<int[]> dimensions) {
+            this.inputs = inputs;
+            this.dimensions = dimensions;
+        }
+        
+        @Override
+        public Iterator<byte[][]> iterator() {
+            return new Iterator<byte[][]>() {
+                private int inputIndex;
+                private BufferedReader reader;
+                private int lineNumber;
+                private byte[][] next;
+                private int nextJob;
+                private int jobCount;
+                private String problem;
+                
+                @Override
+                public boolean hasNext() {
+                    while (next == null) {
+                        byte[][] grid = readGrid();
+                        if (grid == null) {
+                            return false;
+                        }
+                        int job = jobCount++;
+                        if (grid == MALFORMED) {
+                            reportFailure(job, problem);
+                            continue;
+                        }
+                        next = grid;
+                        nextJob = job;
+                    }
+                    return true;
+                }
+                
+                @Override
+                public byte[][] next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    byte[][] grid = next;
+                    next = null;
+                    dimensions.add(new int[] {grid.length, grid[0].length, nextJob});
+                    return grid;
+                }
+                
+                private byte[][] readGrid() {
+                    try {
+                        List<byte[]> rows = new ArrayList<>();
+                        problem = null;
+                        while (true) {
+                            boolean started = !rows.isEmpty() || problem != null;
+                            if (reader == null) {
+                                if (inputIndex == inputs.size()) {
+                                    return started ? toGrid(rows) : null;
+                                }
+                                reader = openInput(inputs.get(inputIndex++));
+                                lineNumber = 0;
+                            }
+                            String line = reader.readLine();
+                            lineNumber++;
+                            if (line == null) {
+                                reader.close();
+                                reader = null;
+                                if (started) {
+                                    return toGrid(rows);
+                                }
+                                continue;
+                            }
+                            line = line.trim();
+                            if (line.startsWith("#")) {
+                                continue;
+                            }
+                            if (line.isEmpty()) {
+                                if (started) {
+                                    return toGrid(rows);
+                                }
+                                continue;
+                            }
+                            // After the first bad row, skip to the end of the grid
+                            if (problem == null) {
+                                problem = parseRow(line, rows);
+                            }
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                
+                /**
+                 * Append the parsed row, or return what is wrong with it
+                 */
+                private String parseRow(String line, List<byte[]> rows) {
+                    String digits = line.replaceAll("\\s+", "");
+                    byte[] row = new byte[digits.length()];
+                    for (int col = 0; col < row.length; col++) {
+                        int value = digits.charAt(col) - '0';
+                        if (!LargestZeroSubmatrix.isValidValue(value)) {
+                            return location() + ": values must be 0 or 1";
+                        }
+                        row[col] = (byte) value;
+                    }
+                    rows.add(row);
+                    return null;
+                }
+                
+                private byte[][] toGrid(List<byte[]> rows) {
+                    if (problem != null) {
+                        return MALFORMED;
+                    }
+                    int cols = rows.get(0).length;
+                    for (byte[] row : rows) {
+                        if (row.length != cols) {
+                            problem = location() + ": grid rows differ in length";
+                            return MALFORMED;
+                        }
+                    }
+                    return rows.toArray(new byte[0][]);
+                }
+                
+                private String location() {
+                    return inputs.get(inputIndex - 1) + ":" + lineNumber;
+                }
+            };
+        }
+    }
+    
+    // ------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------
+    
+    private static BufferedReader openInput(String input) throws IOException {
+        InputStream stream = input.equals("-")
+            ? System.in
+            : Files.newInputStream(Paths.get(input));
+        return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), 1 << 16);
+    }
+    
+    private void reportFailure(int job, String message) {
+        failures.incrementAndGet();
+        synchronized (System.err) {
+            System.err.println("job " + job + ": " + message);
+        }
+    }
+    
+    /**
+     * Scores print as integers when whole, otherwise in full precision
+     */
+    private static String jsonNumber(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
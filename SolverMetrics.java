@@ -0,0 +1,158 @@
+/**
+ * Per-run metrics of WeightedSubstringMatcher and LargestZeroSubmatrix
+ *
+ * Collection:
+ * A solver only measures a run when it has a Listener attached or when
+ * its SolverRunEvent is enabled in a Flight Recorder recording. Otherwise
+ * the only cost is a null check and a Flight Recorder state check per call.
+ *
+ * Fields:
+ *   cellsEvaluated  - DP cells whose recurrence was computed
+ *   cellsSkipped    - DP cells ruled out by bounds without evaluation
+ *   optimumUpdates  - times the tracked optimum improved
+ *   bytesAllocated  - heap bytes allocated by the calling thread (-1 if
+ *                     the JVM cannot measure it)
+ *   dpNanos         - wall time of the DP phase
+ *   extractionNanos - wall time of solution extraction
+ */
+
+import java.lang.management.*;
+import jdk.jfr.*;
+
+public class SolverMetrics {
+    
+    public final String solver;
+    public final int dimension1;
+    public final int dimension2;
+    public final long cellsEvaluated;
+    public final long cellsSkipped;
+    public final long optimumUpdates;
+    public final long bytesAllocated;
+    public final long dpNanos;
+    public final long extractionNanos;
+    
+    public SolverMetrics(String solver, int dim1, int dim2, long evaluated, long skipped,
+                         long updates, long allocated, long dpTime, long extractionTime) {
+        this.solver = solver;
+        this.dimension1 = dim1;
+        this.dimension2 = dim2;
+        this.cellsEvaluated = evaluated;
+        this.cellsSkipped = skipped;
+        this.optimumUpdates = updates;
+        this.bytesAllocated = allocated;
+        this.dpNanos = dpTime;
+        this.extractionNanos = extractionTime;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+            "%s %dx%d | evaluated: %d, skipped: %d, updates: %d, allocated: %d B, "
+                + "dp: %.3f ms, extraction: %.3f ms",
+            solver, dimension1, dimension2, cellsEvaluated, cellsSkipped, optimumUpdates,
+            bytesAllocated, dpNanos / 1_000_000.0, extractionNanos / 1_000_000.0
+        );
+    }
+    
+    /**
+     * Receives the metrics of every run of the solver it is attached to,
+     * on the thread that ran the solver
+     */
+    public interface Listener {
+        void onRun(SolverMetrics metrics);
+    }
+    
+    /**
+     * Measurement of one solver run; only created when someone is listening
+     */
+    static final class Probe {
+        private final String solver;
+        private final Listener listener;
+        // Null unless Flight Recorder is running
+        private final SolverRunEvent event;
+        private final long allocatedAtStart;
+        private final long startTime;
+        private long dpEndTime;
+        
+        private Probe(String solver, Listener listener, SolverRunEvent event) {
+            this.solver = solver;
+            this.listener = listener;
+            this.event = event;
+            this.allocatedAtStart = currentThreadAllocatedBytes();
+            this.startTime = System.nanoTime();
+            if (event != null) {
+                event.begin();
+            }
+        }
+        
+        /**
+         * Start measuring, or return null when neither a listener nor a
+         * Flight Recorder recording wants the result
+         */
+        static Probe start(String solver, Listener listener) {
+            // Touching the event class initializes Flight Recorder support,
+            // which is only worth it once a recording has started it anyway
+            SolverRunEvent event = FlightRecorder.isInitialized() ? new SolverRunEvent() : null;
+            if (listener == null && (event == null || !event.isEnabled())) {
+                return null;
+            }
+            return new Probe(solver, listener, event);
+        }
+        
+        void dpFinished() {
+            dpEndTime = System.nanoTime();
+        }
+        
+        void finish(int dim1, int dim2, long evaluated, long skipped, long updates) {
+            long endTime = System.nanoTime();
+            long allocatedAtEnd = currentThreadAllocatedBytes();
+            long allocated = (allocatedAtStart < 0 || allocatedAtEnd < 0)
+                ? -1 : allocatedAtEnd - allocatedAtStart;
+            
+            SolverMetrics metrics = new SolverMetrics(solver, dim1, dim2, evaluated, skipped,
+                updates, allocated, dpEndTime - startTime, endTime - dpEndTime);
+            
+            if (event != null) {
+                event.end();
+            }
+            if (event != null && event.shouldCommit()) {
+                event.solver = solver;
+                event.dimension1 = dim1;
+                event.dimension2 = dim2;
+                event.cellsEvaluated = evaluated;
+                event.cellsSkipped = skipped;
+                event.optimumUpdates = updates;
+                event.bytesAllocated = allocated;
+                event.dpDuration = metrics.dpNanos;
+                event.extractionDuration = metrics.extractionNanos;
+                event.commit();
+            }
+            if (listener != null) {
+                listener.onRun(metrics);
+            }
+        }
+    }
+    
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = loadThreadBean();
+    
+    private static com.sun.management.ThreadMXBean loadThreadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean extended = (com.sun.management.ThreadMXBean) bean;
+            if (extended.isThreadAllocatedMemorySupported()) {
+                if (!extended.isThreadAllocatedMemoryEnabled()) {
+                    extended.setThreadAllocatedMemoryEnabled(true);
+                }
+                return extended;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Heap bytes allocated so far by the current thread, or -1 if unsupported
+     */
+    static long currentThreadAllocatedBytes() {
+        return (THREAD_BEAN == null) ? -1 : THREAD_BEAN.getCurrentThreadAllocatedBytes();
+    }
+}
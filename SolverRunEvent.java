@@ -0,0 +1,51 @@
+/**
+ * Flight Recorder event for one solver run
+ *
+ * Enable with e.g.
+ *   java -XX:StartFlightRecording:filename=solvers.jfr,settings=profile ...
+ *   jfr print --events dp.SolverRun solvers.jfr
+ * Like other custom events it is on in any running recording unless the
+ * settings disable it. It carries the same fields as SolverMetrics.
+ */
+
+import jdk.jfr.*;
+
+@Name("dp.SolverRun")
+@Label("Solver Run")
+@Category("Dynamic Programming")
+@Description("One findBestMatch or findLargestZeroSquare call")
+@StackTrace(false)
+public final class SolverRunEvent extends Event {
+    
+    @Label("Solver")
+    public String solver;
+    
+    @Label("Dimension 1")
+    @Description("First string length, or grid rows")
+    public int dimension1;
+    
+    @Label("Dimension 2")
+    @Description("Second string length, or grid columns")
+    public int dimension2;
+    
+    @Label("Cells Evaluated")
+    public long cellsEvaluated;
+    
+    @Label("Cells Skipped")
+    public long cellsSkipped;
+    
+    @Label("Optimum Updates")
+    public long optimumUpdates;
+    
+    @Label("Bytes Allocated")
+    @DataAmount
+    public long bytesAllocated;
+    
+    @Label("DP Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dpDuration;
+    
+    @Label("Extraction Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long extractionDuration;
+}
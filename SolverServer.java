@@ -0,0 +1,791 @@
+/**
+ * Local HTTP service for both solvers
+ *
+ * Endpoints:
+ *   POST /match   - weighted approximate common substring
+ *   POST /square  - largest zero square
+ *   GET  /metrics - request counts and latency histograms (JSON)
+ *
+ * Payloads (chosen by the request Content-Type):
+ *   application/json
+ *     /match  {"seq1": "...", "seq2": "...", "weights": "uniform"|"frequency",
+ *              "penalty": 10}          (weights and penalty are optional)
+ *     /square {"grid": ["0100", "0000", ...]}  or  {"grid": [[0,1,0,0], ...]}
+ *   application/octet-stream (big-endian)
+ *     /match  request:  double penalty, byte weights (0 uniform, 1 frequency),
+ *                       int len1, len1 ASCII bytes, int len2, len2 ASCII bytes
+ *             response: int position1, int position2, int length,
+ *                       int mismatches, double score
+ *     /square request:  int rows, int cols, rows * cols bytes (0 or 1)
+ *             response: int size, int topRow, int leftCol
+ *
+ * Behaviour:
+ *   - Requests run on virtual threads when the JDK has them (21+), and on
+ *     a cached thread pool otherwise.
+ *   - Identical requests that are in flight at the same time are solved
+ *     once; every caller gets the same result.
+ *   - Each endpoint runs at most --max-concurrent solves at once; requests
+ *     beyond that get 503 with Retry-After instead of queueing.
+ *   - /match accepts at most MAX_MATCH_CELLS (len1 * len2); the matcher
+ *     keeps two len1 x len2 tables of doubles.
+ *
+ * Usage:
+ *   java SolverServer [--host 127.0.0.1] [--port 8080] [--max-concurrent N]
+ */
+
+import com.sun.net.httpserver.*;
+import java.io.*;
+import java.lang.reflect.*;
+import java.net.*;
+import java.nio.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+public class SolverServer {
+    
+    private static final int MAX_BODY_BYTES = 256 << 20;
+    // 4M cells keep the matcher's two score tables at 64 MB
+    private static final long MAX_MATCH_CELLS = 4_000_000L;
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Endpoint matchEndpoint;
+    private final Endpoint squareEndpoint;
+    
+    public SolverServer(String host, int port, int maxConcurrent) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.executor = newRequestExecutor();
+        this.matchEndpoint = new Endpoint("match", maxConcurrent);
+        this.squareEndpoint = new Endpoint("square", maxConcurrent);
+        
+        server.setExecutor(executor);
+        server.createContext("/match", exchange -> handleSolve(exchange, matchEndpoint));
+        server.createContext("/square", exchange -> handleSolve(exchange, squareEndpoint));
+        server.createContext("/metrics", this::handleMetrics);
+    }
+    
+    public void start() {
+        server.start();
+    }
+    
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+    
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    public static void main(String[] args) throws IOException {
+        String host = "127.0.0.1";
+        int port = 8080;
+        int maxConcurrent = Runtime.getRuntime().availableProcessors();
+        
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                System.exit(2);
+            }
+            switch (args[i]) {
+                case "--host":
+                    host = args[++i];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-concurrent":
+                    maxConcurrent = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.err.println("Usage: java SolverServer [--host H] [--port P] "
+                        + "[--max-concurrent N]");
+                    System.exit(2);
+            }
+        }
+        
+        SolverServer solverServer = new SolverServer(host, port, maxConcurrent);
+        solverServer.start();
+        System.out.println("Solver service listening on http://" + host + ":"
+            + solverServer.getPort() + " (max " + maxConcurrent + " concurrent solves per endpoint)");
+    }
+    
+    /**
+     * Virtual-thread-per-task executor when available, else a cached pool
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "solver-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    // ------------------------------------------------------------------
+    // Request handling
+    // ------------------------------------------------------------------
+    
+    private void handleSolve(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        long startTime = System.nanoTime();
+        int status = 500;
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                status = sendText(exchange, 405, "Use POST");
+            } else {
+                boolean binary = isBinary(exchange);
+                byte[] body = readBody(exchange);
+                Request request = (endpoint == matchEndpoint)
+                    ? parseMatchRequest(body, binary)
+                    : parseSquareRequest(body, binary);
+                Object result = endpoint.solve(request);
+                byte[] payload = binary ? request.encodeBinary(result) : request.encodeJson(result);
+                status = send(exchange, 200, binary ? "application/octet-stream" : "application/json",
+                    payload);
+            }
+        } catch (BadRequestException e) {
+            status = sendText(exchange, 400, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            status = sendText(exchange, 503, "Too many concurrent requests");
+        } catch (RuntimeException e) {
+            status = sendText(exchange, 500, e.toString());
+        } catch (Error e) {
+            // Answer if that still works (e.g. after OutOfMemoryError), then propagate
+            try {
+                sendText(exchange, 500, e.toString());
+            } catch (IOException | RuntimeException | Error ignored) {
+                // The original error is the one that matters
+            }
+            throw e;
+        } finally {
+            exchange.close();
+            endpoint.record(status, System.nanoTime() - startTime);
+        }
+    }
+    
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            StringBuilder json = new StringBuilder("{");
+            matchEndpoint.appendMetrics(json);
+            json.append(',');
+            squareEndpoint.appendMetrics(json);
+            json.append('}');
+            send(exchange, 200, "application/json", json.toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private static boolean isBinary(HttpExchange exchange) {
+        String type = exchange.getRequestHeaders().getFirst("Content-Type");
+        return type != null && type.startsWith("application/octet-stream");
+    }
+    
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                if (buffer.size() + read > MAX_BODY_BYTES) {
+                    throw new BadRequestException("Request body too large");
+                }
+                buffer.write(chunk, 0, read);
+            }
+            return buffer.toByteArray();
+        }
+    }
+    
+    private static int send(HttpExchange exchange, int status, String contentType, byte[] payload)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+        return status;
+    }
+    
+    private static int sendText(HttpExchange exchange, int status, String message) throws IOException {
+        return send(exchange, status, "text/plain; charset=utf-8",
+            (message + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // ------------------------------------------------------------------
+    // Endpoints: coalescing, concurrency cap, latency histogram
+    // ------------------------------------------------------------------
+    
+    private static final class Endpoint {
+        private static final int BUCKETS = 32;
+        
+        private final String name;
+        private final Semaphore permits;
+        private final ConcurrentHashMap<Request, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<>();
+        
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder solved = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        // Bucket i counts latencies in [2^(i-1), 2^i) microseconds
+        private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder latencyTotalMicros = new LongAdder();
+        
+        Endpoint(String name, int maxConcurrent) {
+            this.name = name;
+            this.permits = new Semaphore(maxConcurrent);
+        }
+        
+        /**
+         * Solve the request, or join an identical one already running
+         */
+        Object solve(Request request) {
+            CompletableFuture<Object> mine = new CompletableFuture<>();
+            CompletableFuture<Object> running = inFlight.putIfAbsent(request, mine);
+            if (running != null) {
+                coalesced.increment();
+                return await(running);
+            }
+            
+            try {
+                if (!permits.tryAcquire()) {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Endpoint " + name + " is at capacity");
+                }
+                try {
+                    mine.complete(request.solve());
+                    solved.increment();
+                } finally {
+                    permits.release();
+                }
+            } catch (Throwable e) {
+                // Errors too: coalesced callers wait on this future
+                mine.completeExceptionally(e);
+            } finally {
+                inFlight.remove(request, mine);
+            }
+            return await(mine);
+        }
+        
+        private static Object await(CompletableFuture<Object> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        
+        void record(int status, long elapsedNanos) {
+            requests.increment();
+            if (status >= 500 && status != 503) {
+                errors.increment();
+            }
+            long micros = Math.max(0, elapsedNanos / 1000);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            latencyBuckets.incrementAndGet(bucket);
+            latencyTotalMicros.add(micros);
+        }
+        
+        void appendMetrics(StringBuilder json) {
+            json.append('"').append(name).append("\":{")
+                .append("\"requests\":").append(requests.sum())
+                .append(",\"solved\":").append(solved.sum())
+                .append(",\"coalesced\":").append(coalesced.sum())
+                .append(",\"rejected\":").append(rejected.sum())
+                .append(",\"errors\":").append(errors.sum())
+                .append(",\"inFlight\":").append(inFlight.size())
+                .append(",\"latencyTotalMicros\":").append(latencyTotalMicros.sum())
+                .append(",\"latencyHistogramMicros\":{");
+            boolean first = true;
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = latencyBuckets.get(i);
+                if (count == 0) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                // Key is the exclusive upper bound of the bucket
+                json.append("\"<").append(1L << i).append("\":").append(count);
+            }
+            json.append("}}");
+        }
+    }
+    
+    // ------------------------------------------------------------------
+    // Requests: parsed, comparable for coalescing, self-encoding results
+    // ------------------------------------------------------------------
+    
+    private abstract static class Request {
+        abstract Object solve();
+        
+        abstract byte[] encodeJson(Object result);
+        
+        abstract byte[] encodeBinary(Object result);
+    }
+    
+    private static final class MatchRequest extends Request {
+        final String first;
+        final String second;
+        final boolean frequencyWeights;
+        final double penalty;
+        
+        MatchRequest(String first, String second, boolean frequencyWeights, double penalty) {
+            this.first = first;
+            this.second = second;
+            this.frequencyWeights = frequencyWeights;
+            this.penalty = penalty;
+        }
+        
+        @Override
+        Object solve() {
+            double[] weights = frequencyWeights
+                ? WeightedSubstringMatcher.createFrequencyWeights()
+                : WeightedSubstringMatcher.createUniformWeights();
+            return new WeightedSubstringMatcher(weights, penalty).findBestMatch(first, second);
+        }
+        
+        @Override
+        byte[] encodeJson(Object result) {
+            WeightedSubstringMatcher.SubstringMatch match = (WeightedSubstringMatcher.SubstringMatch) result;
+            return String.format(Locale.ROOT,
+                "{\"substring1\":\"%s\",\"substring2\":\"%s\",\"position1\":%d,\"position2\":%d,"
+                    + "\"length\":%d,\"mismatches\":%d,\"score\":%s}",
+                match.substring1, match.substring2, match.position1, match.position2,
+                match.length, match.mismatches, Double.toString(match.score))
+                .getBytes(StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        byte[] encodeBinary(Object result) {
+            WeightedSubstringMatcher.SubstringMatch match = (WeightedSubstringMatcher.SubstringMatch) result;
+            return ByteBuffer.allocate(4 * Integer.BYTES + Double.BYTES)
+                .putInt(match.position1)
+                .putInt(match.position2)
+                .putInt(match.length)
+                .putInt(match.mismatches)
+                .putDouble(match.score)
+                .array();
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof MatchRequest)) {
+                return false;
+            }
+            MatchRequest that = (MatchRequest) other;
+            return frequencyWeights == that.frequencyWeights
+                && Double.compare(penalty, that.penalty) == 0
+                && first.equals(that.first)
+                && second.equals(that.second);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(first, second, frequencyWeights, penalty);
+        }
+    }
+    
+    private static final class SquareRequest extends Request {
+        final byte[][] grid;
+        private final int hash;
+        
+        SquareRequest(byte[][] grid) {
+            this.grid = grid;
+            this.hash = Arrays.deepHashCode(grid);
+        }
+        
+        @Override
+        Object solve() {
+            return new LargestZeroSubmatrix().findLargestZeroSquare(grid);
+        }
+        
+        @Override
+        byte[] encodeJson(Object result) {
+            LargestZeroSubmatrix.SquareResult square = (LargestZeroSubmatrix.SquareResult) result;
+            return String.format(Locale.ROOT, "{\"size\":%d,\"topRow\":%d,\"leftCol\":%d}",
+                square.size, square.topRow, square.leftCol).getBytes(StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        byte[] encodeBinary(Object result) {
+            ByteArrayOutputStream buffer =
+                new ByteArrayOutputStream(LargestZeroSubmatrix.SquareResult.SERIALIZED_BYTES);
+            try {
+                ((LargestZeroSubmatrix.SquareResult) result).writeTo(new DataOutputStream(buffer));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SquareRequest
+                && hash == ((SquareRequest) other).hash
+                && Arrays.deepEquals(grid, ((SquareRequest) other).grid);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    
+    private static MatchRequest parseMatchRequest(byte[] body, boolean binary) {
+        String first;
+        String second;
+        boolean frequencyWeights;
+        double penalty;
+        
+        if (binary) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(body);
+                penalty = buffer.getDouble();
+                frequencyWeights = buffer.get() == 1;
+                first = readAscii(buffer);
+                second = readAscii(buffer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new BadRequestException("Truncated binary match request");
+            }
+        } else {
+            Map<?, ?> json = asObject(Json.parse(new String(body, StandardCharsets.UTF_8)));
+            first = asString(json.get("seq1"), "seq1");
+            second = asString(json.get("seq2"), "seq2");
+            Object weights = json.containsKey("weights") ? json.get("weights") : "uniform";
+            if (!"uniform".equals(weights) && !"frequency".equals(weights)) {
+                throw new BadRequestException("weights must be \"uniform\" or \"frequency\"");
+            }
+            frequencyWeights = "frequency".equals(weights);
+            Object value = json.containsKey("penalty") ? json.get("penalty") : 10.0;
+            if (!(value instanceof Double)) {
+                throw new BadRequestException("penalty must be a number");
+            }
+            penalty = (Double) value;
+        }
+        
+        if (!WeightedSubstringMatcher.isValidString(first)
+                || !WeightedSubstringMatcher.isValidString(second)) {
+            throw new BadRequestException("Sequences must be non-empty and contain only A-Z");
+        }
+        if ((long) first.length() * second.length() > MAX_MATCH_CELLS) {
+            throw new BadRequestException("len1 * len2 must not exceed " + MAX_MATCH_CELLS);
+        }
+        return new MatchRequest(first, second, frequencyWeights, penalty);
+    }
+    
+    private static String readAscii(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+    
+    private static SquareRequest parseSquareRequest(byte[] body, boolean binary) {
+        byte[][] grid;
+        if (binary) {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            if (buffer.remaining() < 2 * Integer.BYTES) {
+                throw new BadRequestException("Truncated binary grid header");
+            }
+            int rows = buffer.getInt();
+            int cols = buffer.getInt();
+            if (rows <= 0 || cols <= 0 || (long) rows * cols != buffer.remaining()) {
+                throw new BadRequestException("Grid body does not match " + rows + " x " + cols);
+            }
+            grid = new byte[rows][cols];
+            for (byte[] row : grid) {
+                buffer.get(row);
+            }
+        } else {
+            Map<?, ?> json = asObject(Json.parse(new String(body, StandardCharsets.UTF_8)));
+            Object rows = json.get("grid");
+            if (!(rows instanceof List) || ((List<?>) rows).isEmpty()) {
+                throw new BadRequestException("grid must be a non-empty array of rows");
+            }
+            List<?> rowList = (List<?>) rows;
+            grid = new byte[rowList.size()][];
+            for (int i = 0; i < grid.length; i++) {
+                grid[i] = parseGridRow(rowList.get(i));
+                if (grid[i].length == 0 || grid[i].length != grid[0].length) {
+                    throw new BadRequestException("Grid rows must be non-empty and equally long");
+                }
+            }
+        }
+        
+        // JSON rows are checked while parsed; this covers binary bodies
+        for (byte[] row : grid) {
+            for (byte value : row) {
+                if (!LargestZeroSubmatrix.isValidValue(value)) {
+                    throw new BadRequestException("Grid values must be 0 or 1");
+                }
+            }
+        }
+        return new SquareRequest(grid);
+    }
+    
+    private static byte[] parseGridRow(Object row) {
+        if (row instanceof String) {
+            String digits = (String) row;
+            byte[] values = new byte[digits.length()];
+            for (int col = 0; col < values.length; col++) {
+                char digit = digits.charAt(col);
+                if (digit != '0' && digit != '1') {
+                    throw new BadRequestException("Grid values must be 0 or 1");
+                }
+                values[col] = (byte) (digit - '0');
+            }
+            return values;
+        }
+        if (row instanceof List) {
+            List<?> cells = (List<?>) row;
+            byte[] values = new byte[cells.size()];
+            for (int col = 0; col < values.length; col++) {
+                if (!(cells.get(col) instanceof Double)) {
+                    throw new BadRequestException("Grid cells must be numbers");
+                }
+                // Check the number itself; narrowing first would let 257 or 0.5 through
+                double cell = (Double) cells.get(col);
+                if (cell != 0.0 && cell != 1.0) {
+                    throw new BadRequestException("Grid values must be 0 or 1");
+                }
+                values[col] = (byte) cell;
+            }
+            return values;
+        }
+        throw new BadRequestException("Grid rows must be strings or arrays");
+    }
+    
+    private static Map<?, ?> asObject(Object value) {
+        if (!(value instanceof Map)) {
+            throw new BadRequestException("Expected a JSON object");
+        }
+        return (Map<?, ?>) value;
+    }
+    
+    private static String asString(Object value, String field) {
+        if (!(value instanceof String)) {
+            throw new BadRequestException(field + " must be a string");
+        }
+        return (String) value;
+    }
+    
+    private static final class BadRequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        BadRequestException(String message) {
+            super(message);
+        }
+    }
+    
+    /**
+     * Minimal JSON reader: objects become LinkedHashMap, arrays ArrayList,
+     * numbers Double, plus String, Boolean and null
+     */
+    private static final class Json {
+        private final String text;
+        private int pos;
+        
+        private Json(String text) {
+            this.text = text;
+        }
+        
+        static Object parse(String text) {
+            Json parser = new Json(text);
+            Object value = parser.readValue();
+            parser.skipWhitespace();
+            if (parser.pos != text.length()) {
+                throw parser.error("Trailing characters");
+            }
+            return value;
+        }
+        
+        private Object readValue() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw error("Unexpected end of JSON");
+            }
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    return readObject();
+                case '[':
+                    return readArray();
+                case '"':
+                    return readString();
+                case 't':
+                    expect("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    expect("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    expect("null");
+                    return null;
+                default:
+                    return readNumber();
+            }
+        }
+        
+        private Map<String, Object> readObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected field name");
+                }
+                String key = readString();
+                skipWhitespace();
+                if (peek() != ':') {
+                    throw error("Expected ':'");
+                }
+                pos++;
+                object.put(key, readValue());
+                skipWhitespace();
+                char c = peek();
+                pos++;
+                if (c == '}') {
+                    return object;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+        
+        private List<Object> readArray() {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(readValue());
+                skipWhitespace();
+                char c = peek();
+                pos++;
+                if (c == ']') {
+                    return array;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or ']'");
+                }
+            }
+        }
+        
+        private String readString() {
+            StringBuilder value = new StringBuilder();
+            pos++;
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("Unterminated string");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    throw error("Unterminated escape");
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Bad unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Bad unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+        }
+        
+        private Double readNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            try {
+                return Double.valueOf(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Invalid value");
+            }
+        }
+        
+        private void expect(String literal) {
+            if (!text.startsWith(literal, pos)) {
+                throw error("Invalid literal");
+            }
+            pos += literal.length();
+        }
+        
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+        
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+        
+        private BadRequestException error(String message) {
+            return new BadRequestException(message + " at offset " + pos);
+        }
+    }
+}
@@ -10,7 +10,8 @@
  * 
  * Bellman Equation:
  * dp[i][j][len] = dp[i-1][j-1][len-1] + score(s1[i], s2[j])
- * where score(a,b) = weight[a] if a==b, else -penalty
+ * where score(a,b) comes from a ScoringMatrix over an Alphabet; the default
+ * scheme is score(a,b) = weight[a] if a==b, else -penalty
  * 
  * Base case: dp[i][j][1] = score(s1[i], s2[j]) for all valid i,j
  * 
@@ -21,10 +22,14 @@
  * Complexity Analysis:
  * Time: O(n * m * min(n,m)) where n,m are string lengths
  * Space: O(n * m) - optimized to 2D instead of 3D by computing on-the-fly
+ *
+ * Both sequences are encoded to alphabet codes once per call, so the DP
+ * reads scores from a flat table and never decodes characters.
  */
 
 import java.util.*;
 import java.io.*;
+import java.nio.file.*;
 
 public class WeightedSubstringMatcher {
     
@@ -34,10 +39,15 @@ public class WeightedSubstringMatcher {
         2.758, 0.978, 2.360, 0.150, 1.974, 0.074
     };
     
-    private double[] charWeights;
-    private double mismatchPenalty;
+    private final Alphabet alphabet;
+    private final int alphabetSize;
+    // Flat substitution scores, indexed code1 * alphabetSize + code2
+    private final double[] scoreTable;
+    
     private String firstSeq;
     private String secondSeq;
+    private int[] firstCodes;
+    private int[] secondCodes;
     
     // DP table and tracking variables
     private double[][] currentScores;
@@ -49,18 +59,54 @@ public class WeightedSubstringMatcher {
     private int optimalEndPos2;
     private int optimalLength;
     
+    // Distributed execution (see MatchCoordinator)
+    private MatchCoordinator coordinator;
+    
+    // Instrumentation (see SolverMetrics)
+    private SolverMetrics.Listener metricsListener;
+    private long optimumUpdates;
+    
     // Output writer
     private PrintWriter outputWriter;
     
+    /**
+     * A-Z sequences scored weights[c - 'A'] on a match and -penalty otherwise
+     */
     public WeightedSubstringMatcher(double[] weights, double penalty) {
-        this.charWeights = weights;
-        this.mismatchPenalty = penalty;
+        this(ScoringMatrix.fromWeights(Alphabet.UPPERCASE, weights, penalty));
+    }
+    
+    /**
+     * Sequences over the matrix's alphabet, scored by the matrix; later
+     * changes to the matrix do not affect this matcher
+     */
+    public WeightedSubstringMatcher(ScoringMatrix scoring) {
+        this.alphabet = scoring.getAlphabet();
+        this.alphabetSize = alphabet.size();
+        this.scoreTable = scoring.toTable();
+    }
+    
+    public Alphabet getAlphabet() {
+        return alphabet;
     }
     
     public void setOutputWriter(PrintWriter writer) {
         this.outputWriter = writer;
     }
     
+    public void setMetricsListener(SolverMetrics.Listener listener) {
+        this.metricsListener = listener;
+    }
+    
+    /**
+     * Run findBestMatch and findBestMatches on the coordinator's workers
+     * instead of in this JVM (null to go back to local); results are the
+     * same either way
+     */
+    public void setCoordinator(MatchCoordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+    
     private void writeLine(String text) {
         if (outputWriter != null) {
             outputWriter.println(text);
@@ -77,77 +123,131 @@ public class WeightedSubstringMatcher {
      * Core DP algorithm implementation
      */
     public SubstringMatch findBestMatch(String seq1, String seq2) {
+        SolverMetrics.Probe probe = SolverMetrics.Probe.start("WeightedSubstringMatcher",
+            metricsListener);
+        
         this.firstSeq = seq1;
         this.secondSeq = seq2;
+        this.firstCodes = alphabet.encode(seq1);
+        this.secondCodes = alphabet.encode(seq2);
         
         int len1 = seq1.length();
         int len2 = seq2.length();
         
-        // Initialize DP tables
-        currentScores = new double[len1][len2];
-        previousScores = new double[len1][len2];
-        
         optimalScore = Double.NEGATIVE_INFINITY;
         optimalEndPos1 = -1;
         optimalEndPos2 = -1;
         optimalLength = 0;
+        optimumUpdates = 0;
         
-        // Compute for each possible substring length
-        for (int substringLen = 1; substringLen <= Math.min(len1, len2); substringLen++) {
-            computeForLength(substringLen);
+        if (coordinator != null) {
+            setOptimum(coordinator.solve(scoreTable, alphabetSize, firstCodes, secondCodes));
+        } else {
+            // Initialize DP tables
+            currentScores = new double[len1][len2];
+            previousScores = new double[len1][len2];
             
-            // Swap references for next iteration
-            double[][] temp = previousScores;
-            previousScores = currentScores;
-            currentScores = temp;
+            // Compute for each possible substring length
+            for (int substringLen = 1; substringLen <= Math.min(len1, len2); substringLen++) {
+                computeForLength(substringLen);
+                
+                // Swap references for next iteration
+                double[][] temp = previousScores;
+                previousScores = currentScores;
+                currentScores = temp;
+            }
+        }
+        
+        if (probe == null) {
+            return extractOptimalSolution();
+        }
+        
+        probe.dpFinished();
+        SubstringMatch match = extractOptimalSolution();
+        probe.finish(len1, len2, countEvaluatedCells(len1, len2), 0, optimumUpdates);
+        return match;
+    }
+    
+    /**
+     * Best match of every pair ({first, second}), in order. With a
+     * coordinator the pairs are spread over its workers.
+     */
+    public List<SubstringMatch> findBestMatches(List<String[]> pairs) {
+        List<SubstringMatch> matches = new ArrayList<>(pairs.size());
+        if (coordinator == null) {
+            for (String[] pair : pairs) {
+                matches.add(findBestMatch(pair[0], pair[1]));
+            }
+            return matches;
         }
         
-        return extractOptimalSolution();
+        List<int[][]> encoded = new ArrayList<>(pairs.size());
+        for (String[] pair : pairs) {
+            encoded.add(new int[][] {alphabet.encode(pair[0]), alphabet.encode(pair[1])});
+        }
+        MatchWorker.Best[] results = coordinator.solvePairs(scoreTable, alphabetSize, encoded);
+        for (int i = 0; i < results.length; i++) {
+            firstSeq = pairs.get(i)[0];
+            secondSeq = pairs.get(i)[1];
+            firstCodes = encoded.get(i)[0];
+            secondCodes = encoded.get(i)[1];
+            setOptimum(results[i]);
+            matches.add(extractOptimalSolution());
+        }
+        return matches;
+    }
+    
+    private void setOptimum(MatchWorker.Best best) {
+        optimalScore = best.score;
+        optimalEndPos1 = best.end1;
+        optimalEndPos2 = best.end2;
+        optimalLength = best.length;
+    }
+    
+    /**
+     * Cells computed over all lengths: (len1 - L + 1) * (len2 - L + 1) per L
+     */
+    private static long countEvaluatedCells(int len1, int len2) {
+        long total = 0;
+        for (int len = 1; len <= Math.min(len1, len2); len++) {
+            total += (long) (len1 - len + 1) * (len2 - len + 1);
+        }
+        return total;
     }
     
     /**
      * Compute scores for all substrings of a specific length
      */
     private void computeForLength(int targetLen) {
-        int len1 = firstSeq.length();
-        int len2 = secondSeq.length();
+        int len1 = firstCodes.length;
+        int len2 = secondCodes.length;
         
         for (int idx1 = targetLen - 1; idx1 < len1; idx1++) {
+            int scoreRow = firstCodes[idx1] * alphabetSize;
+            double[] currentRow = currentScores[idx1];
+            double[] previousRow = (targetLen == 1) ? null : previousScores[idx1 - 1];
+            
             for (int idx2 = targetLen - 1; idx2 < len2; idx2++) {
-                double matchScore = calculateMatchScore(
-                    firstSeq.charAt(idx1), 
-                    secondSeq.charAt(idx2)
-                );
+                double matchScore = scoreTable[scoreRow + secondCodes[idx2]];
                 
-                if (targetLen == 1) {
-                    currentScores[idx1][idx2] = matchScore;
+                if (previousRow == null) {
+                    currentRow[idx2] = matchScore;
                 } else {
-                    currentScores[idx1][idx2] = 
-                        previousScores[idx1 - 1][idx2 - 1] + matchScore;
+                    currentRow[idx2] = previousRow[idx2 - 1] + matchScore;
                 }
                 
                 // Update optimal solution if better score found
-                if (currentScores[idx1][idx2] > optimalScore) {
-                    optimalScore = currentScores[idx1][idx2];
+                if (currentRow[idx2] > optimalScore) {
+                    optimalScore = currentRow[idx2];
                     optimalEndPos1 = idx1;
                     optimalEndPos2 = idx2;
                     optimalLength = targetLen;
+                    optimumUpdates++;
                 }
             }
         }
     }
     
-    /**
-     * Calculate score for matching two characters
-     */
-    private double calculateMatchScore(char c1, char c2) {
-        if (c1 == c2) {
-            int charIndex = c1 - 'A';
-            return charWeights[charIndex];
-        }
-        return -mismatchPenalty;
-    }
-    
     /**
      * Extract the optimal substring match from DP solution
      */
@@ -162,10 +262,10 @@ public class WeightedSubstringMatcher {
         String substr1 = firstSeq.substring(startPos1, optimalEndPos1 + 1);
         String substr2 = secondSeq.substring(startPos2, optimalEndPos2 + 1);
         
-        // Count mismatches
+        // Count mismatches (aliases of one symbol share a code)
         int mismatches = 0;
         for (int i = 0; i < optimalLength; i++) {
-            if (substr1.charAt(i) != substr2.charAt(i)) {
+            if (firstCodes[startPos1 + i] != secondCodes[startPos2 + i]) {
                 mismatches++;
             }
         }
@@ -236,16 +336,15 @@ public class WeightedSubstringMatcher {
     /**
      * Validate that string contains only A-Z characters
      */
-    private static boolean isValidString(String str) {
-        if (str == null || str.isEmpty()) {
-            return false;
-        }
-        for (char c : str.toCharArray()) {
-            if (c < 'A' || c > 'Z') {
-                return false;
-            }
-        }
-        return true;
+    static boolean isValidString(String str) {
+        return isValidString(str, Alphabet.UPPERCASE);
+    }
+    
+    /**
+     * Validate that string is non-empty and within the alphabet
+     */
+    static boolean isValidString(String str, Alphabet alphabet) {
+        return str != null && !str.isEmpty() && alphabet.accepts(str);
     }
     
     /**
@@ -438,53 +537,17 @@ public class WeightedSubstringMatcher {
     }
     
     /**
-     * Performance testing with synthetic data
+     * Measured scaling of the matcher on random sequences
      */
-    private static void runPerformanceTests(PrintWriter writer) {
-        Random rng = new Random(42);
-        int[] testSizes = {50, 100, 200, 500, 1000};
-        
-        writer.println("Testing with increasingly larger string lengths:");
-        writer.println("(Randomly generated strings with uniform distribution of A-Z)");
+    private static void runPerformanceTests(PrintWriter writer) throws IOException {
+        Path csvFile = Paths.get("Problem1_Scaling.csv");
+        writer.println("Scaling sweep on random A-Z sequences of equal length n (uniform weights, δ = 10):");
+        writer.println("(per-size measurements are written to " + csvFile + ")");
         writer.println();
-        writer.println("--------------------------------------------------------------------------------");
-        writer.printf("%-15s | %-12s | %-12s%n", "String Lengths", "Time (ms)", "Memory (KB)");
-        writer.println("--------------------------------------------------------------------------------");
         
-        for (int size : testSizes) {
-            String s1 = generateRandomString(size, rng);
-            String s2 = generateRandomString(size, rng);
-            
-            Runtime runtime = Runtime.getRuntime();
-            runtime.gc();
-            long memBefore = runtime.totalMemory() - runtime.freeMemory();
-            
-            WeightedSubstringMatcher matcher = 
-                new WeightedSubstringMatcher(createUniformWeights(), 10.0);
-            
-            long startTime = System.nanoTime();
-            matcher.findBestMatch(s1, s2);
-            long endTime = System.nanoTime();
-            
-            long memAfter = runtime.totalMemory() - runtime.freeMemory();
-            long memUsed = (memAfter - memBefore) / 1024;
-            
-            writer.printf("%6d x %-6d | %12.2f | %12d%n", 
-                size, size, (endTime - startTime) / 1_000_000.0, memUsed);
-        }
-        writer.println("--------------------------------------------------------------------------------");
-        writer.println();
-        writer.println("Observations:");
-        writer.println("  - Time grows as O(n^3) due to three nested loops");
-        writer.println("  - Space grows as O(n^2) for the DP table");
-        writer.println("  - Algorithm remains efficient for strings up to 1000 characters");
-    }
-    
-    private static String generateRandomString(int length, Random rng) {
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append((char) ('A' + rng.nextInt(26)));
+        ScalabilityHarness harness = new ScalabilityHarness();
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(csvFile))) {
+            harness.run(ScalabilityHarness.matchEngines(), csv, writer);
         }
-        return sb.toString();
     }
 }
\ No newline at end of file
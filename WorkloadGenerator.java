@@ -0,0 +1,494 @@
+/**
+ * Synthetic workloads for both solvers
+ *
+ * Reproducibility:
+ * Every generator takes a seed. Work is cut into fixed-size chunks (rows of
+ * a grid, byte ranges of a sequence) and each chunk gets its own
+ * SplittableRandom, split from the seeded root in chunk order before any
+ * parallel work starts. Output is therefore identical for a given seed no
+ * matter how many threads fill the chunks.
+ *
+ * Grids are bit-packed (1 = obstacle, 64 cells per long) so a 10^5 x 10^5
+ * grid needs about 1.2 GB. Sequences are ASCII bytes.
+ *
+ * Known answers:
+ *   plantedSquare - a unique largest zero square at a recorded position
+ *   plantedMatch  - a unique best match at recorded positions
+ */
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+public class WorkloadGenerator {
+    
+    private static final int GRID_CHUNK_ROWS = 64;
+    private static final int SEQUENCE_CHUNK_BYTES = 1 << 16;
+    
+    // Probabilities are applied with 16 bits of precision
+    private static final int PROBABILITY_BITS = 16;
+    
+    // Disjoint alphabets for planted matches
+    private static final byte[] FIRST_BACKGROUND = letters('A', 'I');
+    private static final byte[] SECOND_BACKGROUND = letters('J', 'R');
+    private static final byte[] PLANTED_LETTERS = letters('S', 'Z');
+    
+    public static final byte[] UPPERCASE = letters('A', 'Z');
+    
+    // ------------------------------------------------------------------
+    // Grids
+    // ------------------------------------------------------------------
+    
+    /**
+     * Uniform random grid: each cell is 0 with probability zeroDensity
+     */
+    public static BitGrid randomGrid(int rows, int cols, double zeroDensity, long seed) {
+        BitGrid grid = new BitGrid(rows, cols);
+        SplittableRandom[] streams = chunkStreams(new SplittableRandom(seed), chunkCount(rows));
+        parallelChunks(streams.length, chunk -> {
+            SplittableRandom rng = streams[chunk];
+            for (int row = chunk * GRID_CHUNK_ROWS; row < chunkEnd(chunk, rows); row++) {
+                fillRandom(grid.words[row], cols, 1.0 - zeroDensity, rng);
+            }
+        });
+        return grid;
+    }
+    
+    /**
+     * Clustered grid: clusterCount square blobs of obstacles with sides in
+     * [1, maxClusterSize], over a background with the given obstacle density
+     */
+    public static BitGrid clusteredGrid(int rows, int cols, int clusterCount, int maxClusterSize,
+                                        double backgroundDensity, long seed) {
+        if (clusterCount < 0 || maxClusterSize <= 0) {
+            throw new IllegalArgumentException("Invalid cluster parameters");
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        
+        // Blob placement first, then bucket blobs by the row chunks they touch
+        int chunks = chunkCount(rows);
+        int[] top = new int[clusterCount];
+        int[] left = new int[clusterCount];
+        int[] side = new int[clusterCount];
+        int[] bucketSizes = new int[chunks + 1];
+        for (int i = 0; i < clusterCount; i++) {
+            side[i] = 1 + root.nextInt(maxClusterSize);
+            top[i] = root.nextInt(rows);
+            left[i] = root.nextInt(cols);
+            for (int chunk = top[i] / GRID_CHUNK_ROWS; chunk <= lastChunk(top[i], side[i], rows); chunk++) {
+                bucketSizes[chunk + 1]++;
+            }
+        }
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            bucketSizes[chunk + 1] += bucketSizes[chunk];
+        }
+        int[] bucketStart = bucketSizes.clone();
+        int[] members = new int[bucketSizes[chunks]];
+        for (int i = 0; i < clusterCount; i++) {
+            for (int chunk = top[i] / GRID_CHUNK_ROWS; chunk <= lastChunk(top[i], side[i], rows); chunk++) {
+                members[bucketSizes[chunk]++] = i;
+            }
+        }
+        
+        BitGrid grid = new BitGrid(rows, cols);
+        SplittableRandom[] streams = chunkStreams(root, chunks);
+        parallelChunks(chunks, chunk -> {
+            SplittableRandom rng = streams[chunk];
+            for (int row = chunk * GRID_CHUNK_ROWS; row < chunkEnd(chunk, rows); row++) {
+                long[] words = grid.words[row];
+                fillRandom(words, cols, backgroundDensity, rng);
+                for (int m = bucketStart[chunk]; m < bucketStart[chunk + 1]; m++) {
+                    int i = members[m];
+                    if (row >= top[i] && row < top[i] + side[i]) {
+                        setRange(words, left[i], Math.min(cols, left[i] + side[i]));
+                    }
+                }
+            }
+        });
+        return grid;
+    }
+    
+    /**
+     * Grid whose largest zero square is exactly size x size, at a unique
+     * recorded position.
+     *
+     * Construction:
+     * Obstacles sit on a lattice of period size (every cell with
+     * row % size == col % size == size - 1), so every size x size window
+     * holds exactly one lattice obstacle and the background answer is
+     * size - 1. The planted square is cleared and framed by obstacles, so
+     * any other size x size window either overlaps the frame or contains
+     * an untouched lattice point. Extra random obstacles only shrink
+     * other squares.
+     */
+    public static PlantedSquare plantedSquare(int rows, int cols, int size, double obstacleDensity,
+                                              long seed) {
+        if (size <= 0 || size > rows || size > cols) {
+            throw new IllegalArgumentException("Planted size " + size + " does not fit "
+                + rows + " x " + cols);
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        int topRow = root.nextInt(rows - size + 1);
+        int leftCol = root.nextInt(cols - size + 1);
+        
+        long[] latticeRow = new long[wordCount(cols)];
+        for (int col = size - 1; col < cols; col += size) {
+            latticeRow[col >>> 6] |= 1L << col;
+        }
+        int frameLeft = Math.max(0, leftCol - 1);
+        int frameRight = Math.min(cols, leftCol + size + 1);
+        
+        BitGrid grid = new BitGrid(rows, cols);
+        SplittableRandom[] streams = chunkStreams(root, chunkCount(rows));
+        parallelChunks(streams.length, chunk -> {
+            SplittableRandom rng = streams[chunk];
+            for (int row = chunk * GRID_CHUNK_ROWS; row < chunkEnd(chunk, rows); row++) {
+                long[] words = grid.words[row];
+                fillRandom(words, cols, obstacleDensity, rng);
+                if (row % size == size - 1) {
+                    for (int w = 0; w < words.length; w++) {
+                        words[w] |= latticeRow[w];
+                    }
+                }
+                if (row == topRow - 1 || row == topRow + size) {
+                    setRange(words, frameLeft, frameRight);
+                } else if (row >= topRow && row < topRow + size) {
+                    clearRange(words, leftCol, leftCol + size);
+                    if (leftCol > 0) {
+                        words[(leftCol - 1) >>> 6] |= 1L << (leftCol - 1);
+                    }
+                    if (leftCol + size < cols) {
+                        words[(leftCol + size) >>> 6] |= 1L << (leftCol + size);
+                    }
+                }
+            }
+        });
+        return new PlantedSquare(grid, size, topRow, leftCol);
+    }
+    
+    // ------------------------------------------------------------------
+    // Sequences
+    // ------------------------------------------------------------------
+    
+    /**
+     * Uniform random sequence over the given alphabet
+     */
+    public static byte[] randomSequence(int length, byte[] alphabet, long seed) {
+        byte[] sequence = new byte[length];
+        SplittableRandom[] streams = chunkStreams(new SplittableRandom(seed),
+            (length + SEQUENCE_CHUNK_BYTES - 1) / SEQUENCE_CHUNK_BYTES);
+        parallelChunks(streams.length, chunk ->
+            fillSequence(sequence, chunk * SEQUENCE_CHUNK_BYTES,
+                Math.min(length, (chunk + 1) * SEQUENCE_CHUNK_BYTES), alphabet, streams[chunk]));
+        return sequence;
+    }
+    
+    /**
+     * Sequence pair whose best match is a planted substring of the given
+     * length.
+     *
+     * Construction:
+     * The two backgrounds use disjoint letters (A-I and J-R), and the
+     * planted substring uses a third set (S-Z). Outside the planted copies
+     * every aligned pair is a mismatch, and any shifted alignment of the
+     * planted copies matches a strict subset of their letters. With
+     * positive weights and a positive penalty the aligned planted copies
+     * are therefore the unique optimum.
+     */
+    public static PlantedMatch plantedMatch(int length1, int length2, int plantLength, long seed) {
+        if (plantLength <= 0 || plantLength > length1 || plantLength > length2) {
+            throw new IllegalArgumentException("Planted length " + plantLength + " does not fit");
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        int position1 = root.nextInt(length1 - plantLength + 1);
+        int position2 = root.nextInt(length2 - plantLength + 1);
+        byte[] planted = randomSequence(plantLength, PLANTED_LETTERS, root.nextLong());
+        byte[] first = randomSequence(length1, FIRST_BACKGROUND, root.nextLong());
+        byte[] second = randomSequence(length2, SECOND_BACKGROUND, root.nextLong());
+        System.arraycopy(planted, 0, first, position1, plantLength);
+        System.arraycopy(planted, 0, second, position2, plantLength);
+        return new PlantedMatch(first, second, position1, position2, plantLength);
+    }
+    
+    // ------------------------------------------------------------------
+    // Result types
+    // ------------------------------------------------------------------
+    
+    /**
+     * Bit-packed binary grid: bit (col & 63) of words[row][col >>> 6] is
+     * 1 for an obstacle
+     */
+    public static class BitGrid {
+        private final int rows;
+        private final int cols;
+        private final long[][] words;
+        
+        public BitGrid(int rows, int cols) {
+            if (rows <= 0 || cols <= 0) {
+                throw new IllegalArgumentException("Invalid grid dimensions " + rows + " x " + cols);
+            }
+            this.rows = rows;
+            this.cols = cols;
+            this.words = new long[rows][wordCount(cols)];
+        }
+        
+        public int getRows() {
+            return rows;
+        }
+        
+        public int getCols() {
+            return cols;
+        }
+        
+        public boolean isObstacle(int row, int col) {
+            return (words[row][col >>> 6] & (1L << col)) != 0;
+        }
+        
+        public void setObstacle(int row, int col, boolean obstacle) {
+            if (obstacle) {
+                words[row][col >>> 6] |= 1L << col;
+            } else {
+                words[row][col >>> 6] &= ~(1L << col);
+            }
+        }
+        
+        /**
+         * Unpack one row into 0/1 bytes; values must hold cols entries
+         */
+        public void readRow(int row, byte[] values) {
+            long[] rowWords = words[row];
+            for (int col = 0; col < cols; col++) {
+                values[col] = (byte) ((rowWords[col >>> 6] >>> col) & 1);
+            }
+        }
+        
+        public long countObstacles() {
+            long count = 0;
+            for (long[] rowWords : words) {
+                for (long word : rowWords) {
+                    count += Long.bitCount(word);
+                }
+            }
+            return count;
+        }
+        
+        /**
+         * Unpack into the dense byte[][] form used by the in-memory solvers
+         */
+        public byte[][] toDense() {
+            byte[][] matrix = new byte[rows][cols];
+            IntStream.range(0, rows).parallel().forEach(row -> readRow(row, matrix[row]));
+            return matrix;
+        }
+        
+        /**
+         * Unpack into native memory for grids beyond 2^31 cells
+         */
+        public OffHeapGrid toOffHeap() {
+            OffHeapGrid grid = new OffHeapGrid(rows, cols);
+            byte[] values = new byte[cols];
+            for (int row = 0; row < rows; row++) {
+                readRow(row, values);
+                grid.writeRow(row, values);
+            }
+            return grid;
+        }
+        
+        /**
+         * Stream to the grid file format read by the out-of-core solver
+         */
+        public void writeGridFile(Path gridFile) throws IOException {
+            try (FileChannel channel = FileChannel.open(gridFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(8).putInt(rows).putInt(cols);
+                header.flip();
+                writeFully(channel, header);
+                
+                byte[] values = new byte[cols];
+                ByteBuffer buffer = ByteBuffer.wrap(values);
+                for (int row = 0; row < rows; row++) {
+                    readRow(row, values);
+                    buffer.clear();
+                    writeFully(channel, buffer);
+                }
+            }
+        }
+        
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+    
+    /**
+     * Grid with a known, unique largest zero square
+     */
+    public static class PlantedSquare {
+        public final BitGrid grid;
+        public final int size;
+        public final int topRow;
+        public final int leftCol;
+        
+        public PlantedSquare(BitGrid grid, int size, int topRow, int leftCol) {
+            this.grid = grid;
+            this.size = size;
+            this.topRow = topRow;
+            this.leftCol = leftCol;
+        }
+    }
+    
+    /**
+     * Sequence pair with a known, unique best match
+     */
+    public static class PlantedMatch {
+        public final byte[] first;
+        public final byte[] second;
+        public final int position1;
+        public final int position2;
+        public final int length;
+        
+        public PlantedMatch(byte[] first, byte[] second, int position1, int position2, int length) {
+            this.first = first;
+            this.second = second;
+            this.position1 = position1;
+            this.position2 = position2;
+            this.length = length;
+        }
+        
+        public String firstAsString() {
+            return new String(first, java.nio.charset.StandardCharsets.US_ASCII);
+        }
+        
+        public String secondAsString() {
+            return new String(second, java.nio.charset.StandardCharsets.US_ASCII);
+        }
+        
+        /**
+         * Score of the planted match under A-Z indexed weights
+         */
+        public double expectedScore(double[] charWeights) {
+            return expectedScore(ScoringMatrix.fromWeights(Alphabet.UPPERCASE, charWeights, 0.0));
+        }
+        
+        /**
+         * Score of the planted match under an uppercase scoring matrix
+         */
+        public double expectedScore(ScoringMatrix scoring) {
+            double score = 0.0;
+            for (int i = position1; i < position1 + length; i++) {
+                char symbol = (char) first[i];
+                score += scoring.score(symbol, symbol);
+            }
+            return score;
+        }
+    }
+    
+    // ------------------------------------------------------------------
+    // Chunking and bit filling
+    // ------------------------------------------------------------------
+    
+    private static SplittableRandom[] chunkStreams(SplittableRandom root, int count) {
+        SplittableRandom[] streams = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) {
+            streams[i] = root.split();
+        }
+        return streams;
+    }
+    
+    private static void parallelChunks(int count, java.util.function.IntConsumer body) {
+        IntStream.range(0, count).parallel().forEach(body);
+    }
+    
+    private static int chunkCount(int rows) {
+        return (rows + GRID_CHUNK_ROWS - 1) / GRID_CHUNK_ROWS;
+    }
+    
+    private static int chunkEnd(int chunk, int rows) {
+        return Math.min(rows, (chunk + 1) * GRID_CHUNK_ROWS);
+    }
+    
+    private static int lastChunk(int top, int side, int rows) {
+        return (Math.min(rows, top + side) - 1) / GRID_CHUNK_ROWS;
+    }
+    
+    private static int wordCount(int cols) {
+        return (cols + 63) >>> 6;
+    }
+    
+    /**
+     * Set each of the first cols bits with the given probability.
+     *
+     * Combining uniform random words with OR (binary digit 1) or AND
+     * (digit 0), least significant digit first, gives each bit exactly the
+     * probability 0.d1 d2 ... d16, so a word costs at most 16 random longs
+     * instead of 64 comparisons.
+     */
+    private static void fillRandom(long[] words, int cols, double probability, SplittableRandom rng) {
+        int numerator = (int) Math.round(Math.max(0.0, Math.min(1.0, probability)) * (1 << PROBABILITY_BITS));
+        if (numerator == 0) {
+            Arrays.fill(words, 0L);
+            return;
+        }
+        if (numerator == 1 << PROBABILITY_BITS) {
+            Arrays.fill(words, -1L);
+        } else {
+            int lowestDigit = Integer.numberOfTrailingZeros(numerator);
+            for (int w = 0; w < words.length; w++) {
+                long word = 0L;
+                for (int digit = lowestDigit; digit < PROBABILITY_BITS; digit++) {
+                    word = ((numerator >>> digit) & 1) != 0 ? word | rng.nextLong() : word & rng.nextLong();
+                }
+                words[w] = word;
+            }
+        }
+        int tailBits = cols & 63;
+        if (tailBits != 0) {
+            words[words.length - 1] &= (1L << tailBits) - 1;
+        }
+    }
+    
+    private static void setRange(long[] words, int from, int to) {
+        applyRange(words, from, to, true);
+    }
+    
+    private static void clearRange(long[] words, int from, int to) {
+        applyRange(words, from, to, false);
+    }
+    
+    private static void applyRange(long[] words, int from, int to, boolean set) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        for (int w = firstWord; w <= lastWord; w++) {
+            long mask = -1L;
+            if (w == firstWord) {
+                mask &= -1L << from;
+            }
+            if (w == lastWord) {
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            words[w] = set ? words[w] | mask : words[w] & ~mask;
+        }
+    }
+    
+    private static void fillSequence(byte[] sequence, int from, int to, byte[] alphabet,
+                                     SplittableRandom rng) {
+        for (int i = from; i < to; i++) {
+            sequence[i] = alphabet[rng.nextInt(alphabet.length)];
+        }
+    }
+    
+    private static byte[] letters(char first, char last) {
+        byte[] alphabet = new byte[last - first + 1];
+        for (int i = 0; i < alphabet.length; i++) {
+            alphabet[i] = (byte) (first + i);
+        }
+        return alphabet;
+    }
+}
@@ -0,0 +1,147 @@
+package benchmarks;
+
+import java.lang.invoke.*;
+
+/**
+ * Typed entry points into the solver classes
+ *
+ * The solvers live in the unnamed package, which code in a named package
+ * cannot reference, and JMH rejects benchmarks in the unnamed package.
+ * Constant MethodHandles bridge the two; the JIT inlines them like direct
+ * calls.
+ */
+final class Solvers {
+    
+    private static final MethodHandle NEW_MATCHER;
+    private static final MethodHandle FIND_BEST_MATCH;
+    private static final MethodHandle UNIFORM_WEIGHTS;
+    private static final MethodHandle FREQUENCY_WEIGHTS;
+    
+    private static final MethodHandle NEW_FINDER;
+    private static final MethodHandle FIND_LARGEST_ZERO_SQUARE;
+    private static final MethodHandle SET_PRUNING_ENABLED;
+    private static final MethodHandle SET_VECTOR_KERNEL_ENABLED;
+    private static final MethodHandle IS_VECTOR_KERNEL_AVAILABLE;
+    
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> matcher = Class.forName("WeightedSubstringMatcher");
+            Class<?> match = Class.forName("WeightedSubstringMatcher$SubstringMatch");
+            Class<?> finder = Class.forName("LargestZeroSubmatrix");
+            Class<?> square = Class.forName("LargestZeroSubmatrix$SquareResult");
+            
+            NEW_MATCHER = lookup.findConstructor(matcher,
+                    MethodType.methodType(void.class, double[].class, double.class))
+                .asType(MethodType.methodType(Object.class, double[].class, double.class));
+            FIND_BEST_MATCH = lookup.findVirtual(matcher, "findBestMatch",
+                    MethodType.methodType(match, String.class, String.class))
+                .asType(MethodType.methodType(Object.class, Object.class, String.class, String.class));
+            UNIFORM_WEIGHTS = lookup.findStatic(matcher, "createUniformWeights",
+                MethodType.methodType(double[].class));
+            FREQUENCY_WEIGHTS = lookup.findStatic(matcher, "createFrequencyWeights",
+                MethodType.methodType(double[].class));
+            
+            NEW_FINDER = lookup.findConstructor(finder, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+            FIND_LARGEST_ZERO_SQUARE = lookup.findVirtual(finder, "findLargestZeroSquare",
+                    MethodType.methodType(square, byte[][].class))
+                .asType(MethodType.methodType(Object.class, Object.class, byte[][].class));
+            SET_PRUNING_ENABLED = lookup.findVirtual(finder, "setPruningEnabled",
+                    MethodType.methodType(void.class, boolean.class))
+                .asType(MethodType.methodType(void.class, Object.class, boolean.class));
+            SET_VECTOR_KERNEL_ENABLED = lookup.findVirtual(finder, "setVectorKernelEnabled",
+                    MethodType.methodType(void.class, boolean.class))
+                .asType(MethodType.methodType(void.class, Object.class, boolean.class));
+            IS_VECTOR_KERNEL_AVAILABLE = lookup.findStatic(finder, "isVectorKernelAvailable",
+                MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private Solvers() {
+    }
+    
+    static Object newMatcher(double[] weights, double penalty) {
+        try {
+            return (Object) NEW_MATCHER.invokeExact(weights, penalty);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    static Object findBestMatch(Object matcher, String first, String second) {
+        try {
+            return (Object) FIND_BEST_MATCH.invokeExact(matcher, first, second);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    static double[] uniformWeights() {
+        try {
+            return (double[]) UNIFORM_WEIGHTS.invokeExact();
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    static double[] frequencyWeights() {
+        try {
+            return (double[]) FREQUENCY_WEIGHTS.invokeExact();
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    static Object newFinder() {
+        try {
+            return (Object) NEW_FINDER.invokeExact();
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    static Object findLargestZeroSquare(Object finder, byte[][] grid) {
+        try {
+            return (Object) FIND_LARGEST_ZERO_SQUARE.invokeExact(finder, grid);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    static void setPruningEnabled(Object finder, boolean enabled) {
+        try {
+            SET_PRUNING_ENABLED.invokeExact(finder, enabled);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    static void setVectorKernelEnabled(Object finder, boolean enabled) {
+        try {
+            SET_VECTOR_KERNEL_ENABLED.invokeExact(finder, enabled);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    static boolean isVectorKernelAvailable() {
+        try {
+            return (boolean) IS_VECTOR_KERNEL_AVAILABLE.invokeExact();
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+    
+    private static RuntimeException propagate(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * WeightedSubstringMatcher.findBestMatch across input sizes, alphabet
+ * sizes, weight profiles and mismatch penalties
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class SubstringMatchBenchmark {
+    
+    @Param({"100", "300", "1000"})
+    public int length;
+    
+    /** Number of distinct letters used, starting from 'A' */
+    @Param({"4", "26"})
+    public int alphabet;
+    
+    @Param({"uniform", "frequency"})
+    public String weights;
+    
+    @Param({"1.0", "10.0"})
+    public double penalty;
+    
+    private Object matcher;
+    private String first;
+    private String second;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rng = new SplittableRandom(42);
+        first = randomString(length, alphabet, rng);
+        second = randomString(length, alphabet, rng);
+        
+        double[] weightTable = weights.equals("frequency")
+            ? Solvers.frequencyWeights()
+            : Solvers.uniformWeights();
+        matcher = Solvers.newMatcher(weightTable, penalty);
+    }
+    
+    @Benchmark
+    public Object findBestMatch() {
+        return Solvers.findBestMatch(matcher, first, second);
+    }
+    
+    private static String randomString(int length, int alphabet, SplittableRandom rng) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('A' + rng.nextInt(alphabet));
+        }
+        return new String(chars);
+    }
+}
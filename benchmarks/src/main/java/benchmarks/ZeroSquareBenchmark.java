@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * LargestZeroSubmatrix.findLargestZeroSquare across grid sizes, zero
+ * densities and DP engines
+ *
+ * Engines:
+ *   scalar - cell-by-cell DP, no bounds
+ *   pruned - cell-by-cell DP with early row exit and short-run skipping
+ *   vector - Vector API row kernel (same as pruned if the module is absent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ZeroSquareBenchmark {
+    
+    @Param({"100", "1000", "3000"})
+    public int size;
+    
+    @Param({"0.5", "0.9", "0.99"})
+    public double zeroDensity;
+    
+    @Param({"scalar", "pruned", "vector"})
+    public String engine;
+    
+    private Object finder;
+    private byte[][] grid;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rng = new SplittableRandom(12345);
+        grid = new byte[size][size];
+        for (byte[] row : grid) {
+            for (int col = 0; col < size; col++) {
+                row[col] = (rng.nextDouble() < zeroDensity) ? (byte) 0 : (byte) 1;
+            }
+        }
+        
+        finder = Solvers.newFinder();
+        Solvers.setPruningEnabled(finder, !engine.equals("scalar"));
+        Solvers.setVectorKernelEnabled(finder, engine.equals("vector"));
+        if (engine.equals("vector") && !Solvers.isVectorKernelAvailable()) {
+            System.err.println("jdk.incubator.vector not available; vector engine runs scalar code");
+        }
+    }
+    
+    @Benchmark
+    public Object findLargestZeroSquare() {
+        return Solvers.findLargestZeroSquare(finder, grid);
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Native memory arena backed by jdk.incubator.foreign
+ *
+ * Each arena owns a shared ResourceScope. allocate hands out ByteBuffer
+ * views of native segments in that scope, and close() frees them all at
+ * once; a view used after that throws IllegalStateException instead of
+ * reading freed memory.
+ *
+ * Requires --add-modules jdk.incubator.foreign at compile and run time, so
+ * like the vector kernel it lives outside the root directory and
+ * OffHeapGrid loads it reflectively, falling back to direct buffers that
+ * the GC frees. By hand:
+ *   javac --add-modules jdk.incubator.foreign *.java foreign/*.java
+ */
+
+import java.nio.*;
+import jdk.incubator.foreign.*;
+
+final class ForeignArena implements OffHeapGrid.NativeArena {
+    
+    private final ResourceScope scope = ResourceScope.newSharedScope();
+    
+    @Override
+    public ByteBuffer allocate(int bytes) {
+        return MemorySegment.allocateNative(bytes, scope).asByteBuffer();
+    }
+    
+    @Override
+    public void close() {
+        scope.close();
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Vector API row kernel for the Largest Zero Sub-matrix DP
+ *
+ * Row recurrence split:
+ * The top and diagonal neighbours come from the previous row, so
+ *     cand[j] = matrix[i][j] == 0 ? 1 + min(dp[i-1][j], dp[i-1][j-1]) : 0
+ * is computed for many columns at once, the input bytes widened to int
+ * lanes to blend the 1-cells to zero. Only the left neighbour is
+ * sequential, and it reduces to one cheap prefix-style pass that yields
+ * the row maximum:
+ *     dp[i][j] = min(cand[j], dp[i][j-1] + 1)
+ *
+ * Requires --add-modules jdk.incubator.vector at compile and run time, so
+ * it lives outside the root directory: a plain javac *.java leaves it out
+ * and LargestZeroSubmatrix, which loads it reflectively, keeps its scalar
+ * loop. The Maven build compiles it; by hand:
+ *   javac --add-modules jdk.incubator.vector *.java vector/*.java
+ */
+
+import jdk.incubator.vector.*;
+
+final class ZeroSquareVectorKernel implements LargestZeroSubmatrix.RowKernel {
+    
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    
+    // Input bytes for one int vector. There is no byte shape below 64 bits,
+    // so narrow int species load a masked prefix of a 64-bit byte vector.
+    private static final VectorSpecies<Byte> BYTE_SPECIES =
+        VectorSpecies.of(byte.class, VectorShape.forBitSize(Math.max(64, SPECIES.length() * 8)));
+    private static final VectorMask<Byte> BYTE_LANES = BYTE_SPECIES.indexInRange(0, SPECIES.length());
+    
+    ZeroSquareVectorKernel() {
+        // Below four int lanes the byte widening is not intrinsified and the
+        // kernel is slower than the scalar loop, so decline to load
+        if (SPECIES.length() < 4) {
+            throw new UnsupportedOperationException("Vector species too narrow: " + SPECIES);
+        }
+    }
+    
+    @Override
+    public int computeRow(byte[] inputRow, int[] aboveRow, int[] dpRow, int numCols) {
+        // Top/diagonal minimum with 1-cells zeroed, one vector of columns at a time
+        int col = 1;
+        int upperBound = 1 + SPECIES.loopBound(numCols - 1);
+        for (; col < upperBound; col += SPECIES.length()) {
+            IntVector cells = (IntVector) ByteVector.fromArray(BYTE_SPECIES, inputRow, col, BYTE_LANES)
+                .convertShape(VectorOperators.B2I, SPECIES, 0);
+            IntVector top = IntVector.fromArray(SPECIES, aboveRow, col);
+            IntVector diagonal = IntVector.fromArray(SPECIES, aboveRow, col - 1);
+            top.min(diagonal)
+                .add(1)
+                .blend(0, cells.compare(VectorOperators.NE, 0))
+                .intoArray(dpRow, col);
+        }
+        for (; col < numCols; col++) {
+            dpRow[col] = (inputRow[col] != 0) ? 0 : 1 + Math.min(aboveRow[col], aboveRow[col - 1]);
+        }
+        
+        // Resolve the left dependency; a zeroed candidate stays zero
+        int left = dpRow[0];
+        int rowMax = left;
+        for (col = 1; col < numCols; col++) {
+            int value = Math.min(dpRow[col], left + 1);
+            dpRow[col] = value;
+            left = value;
+            rowMax = Math.max(rowMax, value);
+        }
+        return rowMax;
+    }
+}